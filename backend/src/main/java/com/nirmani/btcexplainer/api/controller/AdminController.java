@@ -1,31 +1,80 @@
 package com.nirmani.btcexplainer.api.controller;
 
+import com.nirmani.btcexplainer.service.jobs.BackfillService;
 import com.nirmani.btcexplainer.service.jobs.DailyRefreshJob;
+import com.nirmani.btcexplainer.service.jobs.ExplanationRegenerator;
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class AdminController {
 
   private final DailyRefreshJob job;
+  private final BackfillService backfill;
+  private final ExplanationRegenerator regenerator;
 
   @Value("${app.admin-token}")
   private String adminToken;
 
-  public AdminController(DailyRefreshJob job) {
+  public AdminController(DailyRefreshJob job, BackfillService backfill, ExplanationRegenerator regenerator) {
     this.job = job;
+    this.backfill = backfill;
+    this.regenerator = regenerator;
   }
 
   @PostMapping("/api/admin/refresh")
   public ResponseEntity<?> refresh(HttpServletRequest req) {
-    String token = req.getHeader("X-Admin-Token");
-    if (token == null || !token.equals(adminToken)) {
-      return ResponseEntity.status(401).body(java.util.Map.of("error", "unauthorized"));
-    }
+    if (!authorized(req)) return unauthorized();
     job.runDaily();
     return ResponseEntity.ok(java.util.Map.of("status", "ok"));
   }
+
+  /** Per-event outcome summary of the last explanation regeneration (404 if none ran yet). */
+  @GetMapping("/api/admin/refresh/explanations")
+  public ResponseEntity<?> lastRegeneration(HttpServletRequest req) {
+    if (!authorized(req)) return unauthorized();
+    ExplanationRegenerator.Summary last = regenerator.last();
+    if (last == null) return ResponseEntity.status(404).body(java.util.Map.of("error", "no run yet"));
+    return ResponseEntity.ok(last);
+  }
+
+  /**
+   * Start a historical signal backfill for {@code [from, to]}, or for every event date when no
+   * range is given. Returns immediately; poll {@code GET /api/admin/backfill} for progress.
+   * A single bound, {@code from > to} or a range over {@code app.backfill.max-days} is a 400.
+   */
+  @PostMapping("/api/admin/backfill")
+  public ResponseEntity<?> startBackfill(
+      HttpServletRequest req,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (!authorized(req)) return unauthorized();
+    try {
+      return ResponseEntity.accepted().body(backfill.start(from, to));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+    }
+  }
+
+  @GetMapping("/api/admin/backfill")
+  public ResponseEntity<?> backfillStatus(HttpServletRequest req) {
+    if (!authorized(req)) return unauthorized();
+    return ResponseEntity.ok(backfill.status());
+  }
+
+  private boolean authorized(HttpServletRequest req) {
+    String token = req.getHeader("X-Admin-Token");
+    return token != null && token.equals(adminToken);
+  }
+
+  private ResponseEntity<?> unauthorized() {
+    return ResponseEntity.status(401).body(java.util.Map.of("error", "unauthorized"));
+  }
 }
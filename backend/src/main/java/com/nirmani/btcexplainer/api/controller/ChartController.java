@@ -1,37 +1,63 @@
 package com.nirmani.btcexplainer.api.controller;
 
 import com.nirmani.btcexplainer.api.dto.ChartPointDto;
-import com.nirmani.btcexplainer.domain.asset.Asset;
-import com.nirmani.btcexplainer.domain.asset.AssetRepository;
-import com.nirmani.btcexplainer.domain.price.DailyCandle;
-import com.nirmani.btcexplainer.domain.price.DailyCandleRepository;
+import com.nirmani.btcexplainer.service.cache.DatasetVersion;
+import com.nirmani.btcexplainer.service.cache.EventCacheService;
+import com.nirmani.btcexplainer.service.cache.ResponseBodyCache;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.util.List;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 public class ChartController {
 
-  private final AssetRepository assetRepo;
-  private final DailyCandleRepository candleRepo;
+  private static final int MAX_DAYS = 3650;
 
-  public ChartController(AssetRepository assetRepo, DailyCandleRepository candleRepo) {
-    this.assetRepo = assetRepo;
-    this.candleRepo = candleRepo;
+  private final EventCacheService cache;
+  private final ResponseBodyCache bodies;
+  private final DatasetVersion dataset;
+
+  public ChartController(EventCacheService cache, ResponseBodyCache bodies, DatasetVersion dataset) {
+    this.cache = cache;
+    this.bodies = bodies;
+    this.dataset = dataset;
   }
 
+  /**
+   * Daily candles for the chart ({@code days} clamped to 1..3650). The ETag is derived from the
+   * dataset version, the window and the current UTC date (the window start moves daily), so a
+   * matching {@code If-None-Match} is answered with 304 before any lookup; otherwise the cached
+   * gzipped body is written as-is. {@code Last-Modified} is never earlier than the start of the
+   * current UTC day, so {@code If-Modified-Since} revalidation also misses after the rollover.
+   */
   @GetMapping("/api/chart")
-  @Cacheable("chart")
-  public List<ChartPointDto> chart(@RequestParam(defaultValue = "180") int days) {
-    Asset btc = assetRepo.findBySymbol("BTC").orElseThrow();
-    LocalDate start = LocalDate.now(ZoneOffset.UTC).minusDays(days);
-    List<DailyCandle> candles = candleRepo.findByAssetFrom(btc.getId(), start);
-    return candles.stream()
+  public void chart(
+      @RequestParam(defaultValue = "180") int days,
+      ServletWebRequest request,
+      HttpServletResponse response) throws IOException {
+    int d = Math.max(1, Math.min(days, MAX_DAYS));
+    long version = dataset.current();
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    String key = "c" + d + "-" + Long.toHexString(version) + "-" + today.toEpochDay();
+
+    Instant dayStart = today.atStartOfDay(ZoneOffset.UTC).toInstant();
+    Instant lastModified = dataset.lastModified().isAfter(dayStart) ? dataset.lastModified() : dayStart;
+
+    boolean gzip = HttpCaching.acceptsGzip(request, response);
+    String etag = gzip ? key + "-gz" : key;
+    if (HttpCaching.notModified(request, etag, lastModified, HttpCaching.cacheControl(dataset.maxAge()))) {
+      return;
+    }
+
+    ResponseBodyCache.Body body = bodies.get(key, () -> cache.getChartCandles(d).stream()
         .map(c -> new ChartPointDto(c.getCandleDate(), c.getOpen(), c.getHigh(), c.getLow(), c.getClose()))
-        .toList();
+        .toList());
+    HttpCaching.writeJson(response, body, gzip);
   }
 }
@@ -1,33 +1,55 @@
 package com.nirmani.btcexplainer.api.controller;
 
 import com.nirmani.btcexplainer.api.dto.EventDto;
+import com.nirmani.btcexplainer.service.cache.DatasetVersion;
 import com.nirmani.btcexplainer.service.cache.EventCacheService;
-import java.util.List;
+import com.nirmani.btcexplainer.service.cache.ResponseBodyCache;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 public class EventController {
 
   private final EventCacheService cache;
+  private final ResponseBodyCache bodies;
+  private final DatasetVersion dataset;
 
-  public EventController(EventCacheService cache) {
+  public EventController(EventCacheService cache, ResponseBodyCache bodies, DatasetVersion dataset) {
     this.cache = cache;
+    this.bodies = bodies;
+    this.dataset = dataset;
   }
 
+  /** Latest events ({@code limit} clamped to 1..200); validated and cached like {@code /api/chart}. */
   @GetMapping("/api/events")
-  public List<EventDto> events(@RequestParam(defaultValue = "100") int limit) {
-    return cache.getLatestEvents(Math.min(limit, 200)).stream()
+  public void events(
+      @RequestParam(defaultValue = "100") int limit,
+      ServletWebRequest request,
+      HttpServletResponse response) throws IOException {
+    int n = Math.max(1, Math.min(limit, 200));
+    String key = "e" + n + "-" + Long.toHexString(dataset.current());
+
+    boolean gzip = HttpCaching.acceptsGzip(request, response);
+    String etag = gzip ? key + "-gz" : key;
+    if (HttpCaching.notModified(request, etag, dataset.lastModified(), HttpCaching.cacheControl(dataset.maxAge()))) {
+      return;
+    }
+
+    ResponseBodyCache.Body body = bodies.get(key, () -> cache.getLatestEvents(n).stream()
         .map(
             e ->
                 new EventDto(
                     e.getId(),
                     e.getEventDate(),
-                    e.getDirection(),   
+                    e.getDirection(),
                     e.getPctChange(),
                     e.getSeverity().intValue(),
                     e.getThresholdUsed()))
-        .toList();
+        .toList());
+    HttpCaching.writeJson(response, body, gzip);
   }
 }
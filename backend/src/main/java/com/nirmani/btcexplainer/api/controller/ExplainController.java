@@ -1,35 +1,245 @@
 package com.nirmani.btcexplainer.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nirmani.btcexplainer.api.dto.ExplanationDto;
 import com.nirmani.btcexplainer.domain.event.MarketEvent;
 import com.nirmani.btcexplainer.domain.event.MarketEventRepository;
 import com.nirmani.btcexplainer.domain.explanation.EventExplanation;
+import com.nirmani.btcexplainer.service.cache.DatasetVersion;
+import com.nirmani.btcexplainer.service.explain.ExplanationJobService;
+import com.nirmani.btcexplainer.service.explain.ExplanationReader;
 import com.nirmani.btcexplainer.service.explain.ExplanationService;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class ExplainController {
 
   private final ExplanationService service;
+  private final ExplanationReader reader;
+  private final ExplanationJobService jobs;
   private final MarketEventRepository eventRepo;
+  private final ExecutorService streamExecutor;
+  private final DatasetVersion dataset;
+  private final ObjectMapper mapper;
 
-  public ExplainController(ExplanationService service, MarketEventRepository eventRepo) {
+  @Value("${app.explain.stream.timeout-ms:120000}")
+  private long streamTimeoutMs;
+
+  @Value("${app.explain.batch.max-events:200}")
+  private int batchMaxEvents;
+
+  public ExplainController(
+      ExplanationService service,
+      ExplanationReader reader,
+      ExplanationJobService jobs,
+      MarketEventRepository eventRepo,
+      @Qualifier("explainStreamExecutor") ExecutorService streamExecutor,
+      DatasetVersion dataset,
+      ObjectMapper mapper) {
     this.service = service;
+    this.reader = reader;
+    this.jobs = jobs;
     this.eventRepo = eventRepo;
+    this.streamExecutor = streamExecutor;
+    this.dataset = dataset;
+    this.mapper = mapper;
   }
 
+  /**
+   * Returns the stored explanation (200). If there is none yet, generation is queued and the
+   * response is 202 with a job id and a {@code pollUrl}; once the job is DONE this endpoint
+   * returns 200. A stored explanation without an AI narrative is returned as-is while the
+   * narrative is backfilled in the background.
+   *
+   * <p>The 200 body comes pre-serialized from {@link ExplanationReader}: one query on a miss,
+   * none once the complete explanation is cached. Responses carry an ETag and Last-Modified, and a
+   * matching {@code If-None-Match} gets a 304 (from the cache, no query). Complete explanations
+   * may be reused until the next daily refresh; one awaiting its narrative must be revalidated.</p>
+   */
   @GetMapping("/api/explain/{eventId}")
-  public ExplanationDto explain(@PathVariable Long eventId) {
+  public ResponseEntity<?> explain(@PathVariable Long eventId, ServletWebRequest request) {
+    ExplanationReader.Result r = reader.read(eventId);
+
+    if (r.entry() == null) {
+      try {
+        ExplanationJobService.JobStatus job = jobs.submit(eventId, r.eventDate());
+        return ResponseEntity.accepted().body(jobBody(job));
+      } catch (RejectedExecutionException busy) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", "5")
+            .body(Map.of("error", "busy"));
+      }
+    }
+
+    if (r.needsAiBackfill()) {
+      try { jobs.submit(eventId, r.eventDate()); } catch (RejectedExecutionException ignore) {}
+    }
+
+    CacheControl cc = r.needsAiBackfill() ? CacheControl.noCache() : HttpCaching.cacheControl(dataset.maxAge());
+    if (HttpCaching.notModified(request, r.entry().etag(), r.entry().lastModified(), cc)) return null;
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(r.entry().json());
+  }
+
+  private static final byte[] BATCH_OPEN = "{\"explanations\":[".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] BATCH_MISSING = "],\"missing\":".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] BATCH_JOBS = ",\"jobs\":".getBytes(StandardCharsets.UTF_8);
+
+  /**
+   * Stored explanations for many events in one response: either {@code ids} (comma-separated, in
+   * the order returned) or a {@code from}/{@code to} date range (newest first), at most
+   * {@code app.explain.batch.max-events}. The body is
+   * {@code {"explanations": [ExplanationDto...], "missing": [eventId...], "jobs": [job...]}}, with
+   * explanations streamed from the same pre-serialized bytes as {@link #explain}. Events without
+   * an explanation are listed in {@code missing}; with {@code enqueue=true} they (and stored rows
+   * still lacking an AI narrative) are queued for generation and their jobs returned, until the
+   * queue is full. Unknown ids are left out.
+   */
+  @GetMapping("/api/explain/batch")
+  public ResponseEntity<?> batch(
+      @RequestParam(required = false) List<Long> ids,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "false") boolean enqueue) {
+    List<ExplanationReader.Item> items;
+    if (ids != null && !ids.isEmpty()) {
+      if (ids.size() > batchMaxEvents) {
+        return ResponseEntity.badRequest().body(Map.of("error", "at most " + batchMaxEvents + " ids"));
+      }
+      items = reader.readAll(ids);
+    } else if (from != null && to != null && !from.isAfter(to)) {
+      items = reader.readBetween(from, to, batchMaxEvents);
+    } else {
+      return ResponseEntity.badRequest().body(Map.of("error", "pass ids, or from and to (from <= to)"));
+    }
+
+    List<Long> missing = new ArrayList<>();
+    List<Map<String, Object>> queued = new ArrayList<>();
+    boolean queueOpen = enqueue;
+    for (ExplanationReader.Item it : items) {
+      if (it.json() == null) missing.add(it.eventId());
+      if (queueOpen && (it.json() == null || it.needsAiBackfill())) {
+        try {
+          queued.add(jobBody(jobs.submit(it.eventId(), it.eventDate())));
+        } catch (RejectedExecutionException busy) {
+          queueOpen = false;
+        }
+      }
+    }
+
+    StreamingResponseBody body = out -> writeBatch(out, items, missing, queued);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  private void writeBatch(OutputStream out, List<ExplanationReader.Item> items,
+      List<Long> missing, List<Map<String, Object>> queued) throws IOException {
+    out.write(BATCH_OPEN);
+    boolean first = true;
+    for (ExplanationReader.Item it : items) {
+      if (it.json() == null) continue;
+      if (!first) out.write(',');
+      out.write(it.json());
+      first = false;
+    }
+    out.write(BATCH_MISSING);
+    out.write(mapper.writeValueAsBytes(missing));
+    out.write(BATCH_JOBS);
+    out.write(mapper.writeValueAsBytes(queued));
+    out.write('}');
+  }
+
+  /**
+   * Server-Sent Events variant of {@link #explain}: generates (or loads) the explanation on the
+   * request and streams the AI narrative while OpenAI produces it. Events, in order:
+   * {@code meta} (event date, direction, move), zero or more {@code token} ({@code {"text": ...}}
+   * with the next text delta), then {@code done} (the stored {@link ExplanationDto}) or {@code error}.
+   * The final text is persisted like any other generation; a client that disconnects early does
+   * not stop it. If the event is already being generated (by a queued job or another stream), this
+   * stream joins that run and receives the narrative as a single {@code token} when it finishes.
+   */
+  @GetMapping(value = "/api/explain/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<?> stream(@PathVariable Long eventId) {
     MarketEvent e = eventRepo.findById(eventId).orElseThrow();
-    EventExplanation ex = service.generateOrGet(eventId);
+    SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+    try {
+      streamExecutor.execute(() -> {
+        Sink sink = new Sink(emitter);
+        sink.send("meta", Map.of(
+            "eventId", eventId,
+            "eventDate", e.getEventDate().toString(),
+            "direction", e.getDirection(),
+            "pctChange", e.getPctChange().setScale(2, RoundingMode.HALF_UP).toPlainString()));
+        try {
+          EventExplanation ex = service.generateOrGet(eventId, delta -> sink.send("token", Map.of("text", delta)));
+          sink.send("done", toDto(e, ex));
+          emitter.complete();
+        } catch (Exception err) {
+          sink.send("error", Map.of("error", String.valueOf(err.getMessage())));
+          emitter.complete();
+        }
+      });
+    } catch (RejectedExecutionException busy) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header("Retry-After", "5")
+          .body(Map.of("error", "busy"));
+    }
+
+    return ResponseEntity.ok()
+        .header("Cache-Control", "no-cache")
+        .header("X-Accel-Buffering", "no") // keep reverse proxies from buffering the stream
+        .body(emitter);
+  }
+
+  /** Sends to the emitter until the client goes away; generation carries on regardless. */
+  private static final class Sink {
+    private final SseEmitter emitter;
+    private volatile boolean open = true;
+
+    Sink(SseEmitter emitter) {
+      this.emitter = emitter;
+      emitter.onCompletion(() -> open = false);
+      emitter.onTimeout(() -> open = false);
+      emitter.onError(err -> open = false);
+    }
 
+    void send(String name, Object data) {
+      if (!open) return;
+      try {
+        emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+      } catch (IOException | IllegalStateException gone) {
+        open = false;
+      }
+    }
+  }
+
+  private ExplanationDto toDto(MarketEvent e, EventExplanation ex) {
     String pct = e.getPctChange().setScale(2, RoundingMode.HALF_UP).toPlainString();
 
     return new ExplanationDto(
-        eventId,
+        e.getId(),
         e.getEventDate(),
         e.getDirection(),
         pct,
@@ -41,4 +251,22 @@ public class ExplainController {
         ex.getFactorsJson()
     );
   }
+
+  @GetMapping("/api/explain/jobs/{jobId}")
+  public ResponseEntity<?> job(@PathVariable String jobId) {
+    ExplanationJobService.JobStatus job = jobs.find(jobId);
+    if (job == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "unknown job"));
+    return ResponseEntity.ok(jobBody(job));
+  }
+
+  private Map<String, Object> jobBody(ExplanationJobService.JobStatus job) {
+    Map<String, Object> body = new java.util.LinkedHashMap<>();
+    body.put("jobId", job.jobId());
+    body.put("eventId", job.eventId());
+    body.put("state", job.state());
+    body.put("pollUrl", "/api/explain/jobs/" + job.jobId());
+    body.put("resultUrl", "/api/explain/" + job.eventId());
+    if (job.error() != null) body.put("error", job.error());
+    return body;
+  }
 }
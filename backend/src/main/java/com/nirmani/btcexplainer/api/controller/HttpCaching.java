@@ -0,0 +1,60 @@
+package com.nirmani.btcexplainer.api.controller;
+
+import com.nirmani.btcexplainer.service.cache.ResponseBodyCache;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/** Conditional GET and pre-encoded body support for the read APIs. */
+final class HttpCaching {
+
+  private HttpCaching() {}
+
+  /** {@code public, max-age=...}, or {@code no-cache} (always revalidate) for a zero age. */
+  static CacheControl cacheControl(Duration maxAge) {
+    return maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge).cachePublic();
+  }
+
+  /**
+   * Checks {@code If-None-Match} / {@code If-Modified-Since}. Returns true if the client's copy
+   * is current: the response is then already a 304 and the handler should return null without
+   * building a body. Either way the validators and {@code Cache-Control} are set on the response.
+   */
+  static boolean notModified(ServletWebRequest request, String etag, Instant lastModified, CacheControl cc) {
+    if (request.getResponse() != null) {
+      request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cc.getHeaderValue());
+    }
+    return request.checkNotModified(etag, lastModified.toEpochMilli());
+  }
+
+  /** True if the client takes gzip; also marks the response as varying by encoding. */
+  static boolean acceptsGzip(ServletWebRequest request, HttpServletResponse response) {
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    return accept != null && accept.toLowerCase(Locale.ROOT).contains("gzip");
+  }
+
+  /** Writes a cached JSON body: the gzipped bytes as-is, or inflated for clients without gzip. */
+  static void writeJson(HttpServletResponse response, ResponseBodyCache.Body body, boolean gzip) throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+      response.setContentLength(body.gzipped().length);
+      response.getOutputStream().write(body.gzipped());
+    } else {
+      response.setContentLength(body.length());
+      try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body.gzipped()))) {
+        in.transferTo(response.getOutputStream());
+      }
+    }
+  }
+}
@@ -1,9 +1,15 @@
 package com.nirmani.btcexplainer.client.alternative;
 
 import com.nirmani.btcexplainer.util.HttpJson;
+import com.nirmani.btcexplainer.util.ResponseStore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,26 +17,75 @@ public class FearGreedClient {
   private final HttpJson http;
   private final ObjectMapper om = new ObjectMapper();
 
+  /** The index is published once a day. */
+  private static final ResponseStore.Retention DAILY = ResponseStore.Retention.ttl(Duration.ofHours(1));
+
   public FearGreedClient(HttpJson http) {
     this.http = http;
   }
 
+  /** Latest daily value, or null if the feed is empty; provider errors propagate. */
   public FngPoint fetchLatest() {
     String url = "https://api.alternative.me/fng/?limit=1&format=json";
-    try {
-      String body = http.get("alternative", url).getBody();
-      JsonNode root = om.readTree(body);
-      JsonNode data = root.path("data");
-      if (data.isArray() && data.size() > 0) {
-        JsonNode d = data.get(0);
-        int value = Integer.parseInt(d.path("value").asText("0"));
-        String classification = d.path("value_classification").asText("");
-        long ts = Long.parseLong(d.path("timestamp").asText("0"));
-        LocalDate date = Instant.ofEpochSecond(ts).atZone(ZoneOffset.UTC).toLocalDate();
-        return new FngPoint(date, value, classification);
+    JsonNode root = http.getJson("alternative", url, DAILY, om::readTree);
+    JsonNode data = root.path("data");
+    if (!data.isArray() || data.size() == 0) return null;
+    JsonNode d = data.get(0);
+    int value = Integer.parseInt(d.path("value").asText("0"));
+    String classification = d.path("value_classification").asText("");
+    long ts = Long.parseLong(d.path("timestamp").asText("0"));
+    LocalDate date = Instant.ofEpochSecond(ts).atZone(ZoneOffset.UTC).toLocalDate();
+    return new FngPoint(date, value, classification);
+  }
+
+  /**
+   * Fetch the most recent {@code limit} daily values (newest first); {@code limit=0} returns the
+   * full history since 2018 in one response. The body is read with a token-streaming parser so
+   * the multi-thousand-entry array is never built as a tree. Provider errors propagate, so an
+   * empty list means the feed itself was empty.
+   */
+  public List<FngPoint> fetchHistory(int limit) {
+    String url = "https://api.alternative.me/fng/?limit=" + Math.max(0, limit) + "&format=json";
+    return http.getJson("alternative", url, DAILY, this::readData);
+  }
+
+  private List<FngPoint> readData(JsonParser p) throws IOException {
+    List<FngPoint> out = new ArrayList<>();
+    if (p.nextToken() != JsonToken.START_OBJECT) return out;
+
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String field = p.currentName();
+      JsonToken value = p.nextToken();
+      if (!"data".equals(field) || value != JsonToken.START_ARRAY) {
+        p.skipChildren();
+        continue;
+      }
+      while (p.nextToken() == JsonToken.START_OBJECT) {
+        FngPoint point = readPoint(p);
+        if (point != null) out.add(point);
+      }
+    }
+    return out;
+  }
+
+  /** Reads one {@code data[]} entry; values arrive as strings ({@code "value": "40"}). */
+  private FngPoint readPoint(JsonParser p) throws IOException {
+    int value = -1;
+    long ts = -1;
+    String classification = "";
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String field = p.currentName();
+      p.nextToken();
+      switch (field) {
+        case "value" -> value = p.getValueAsInt(-1);
+        case "timestamp" -> ts = p.getValueAsLong(-1);
+        case "value_classification" -> classification = p.getValueAsString("");
+        default -> p.skipChildren();
       }
-    } catch (Exception ignore) {}
-    return null;
+    }
+    if (value < 0 || ts < 0) return null;
+    LocalDate date = Instant.ofEpochSecond(ts).atZone(ZoneOffset.UTC).toLocalDate();
+    return new FngPoint(date, value, classification);
   }
 
   public record FngPoint(LocalDate date, int value, String classification) {}
@@ -1,9 +1,12 @@
 package com.nirmani.btcexplainer.client.coingecko;
 
 import com.nirmani.btcexplainer.util.HttpJson;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmani.btcexplainer.util.ResponseStore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +16,6 @@ import org.springframework.stereotype.Component;
 public class CoinGeckoClient {
 
   private final HttpJson http;
-  private final ObjectMapper om = new ObjectMapper();
 
   public CoinGeckoClient(HttpJson http) {
     this.http = http;
@@ -23,27 +25,37 @@ public class CoinGeckoClient {
    * Fetch OHLC candles for bitcoin.
    * Endpoint: /coins/bitcoin/ohlc?vs_currency=usd&days=180
    * Response rows: [timestamp_ms, open, high, low, close]
+   * Provider errors propagate, so an outage is not mistaken for "no new candles".
    */
   public List<OhlcRow> fetchBtcOhlc(int days) {
     String url = "https://api.coingecko.com/api/v3/coins/bitcoin/ohlc?vs_currency=usd&days=" + days;
-    try {
-      String body = http.get("coingecko", url).getBody();
-      JsonNode arr = om.readTree(body);
-      List<OhlcRow> out = new ArrayList<>();
-      for (JsonNode row : arr) {
-        long ts = row.get(0).asLong();
-        out.add(new OhlcRow(
-            Instant.ofEpochMilli(ts),
-            new BigDecimal(row.get(1).asText()),
-            new BigDecimal(row.get(2).asText()),
-            new BigDecimal(row.get(3).asText()),
-            new BigDecimal(row.get(4).asText())
-        ));
+    // The window always ends with today's still-open candle, so it can only be reused briefly.
+    return http.getJson("coingecko", url, ResponseStore.Retention.ttl(Duration.ofMinutes(30)), this::readRows);
+  }
+
+  /** Reads the outer array row by row straight off the token stream. */
+  private List<OhlcRow> readRows(JsonParser p) throws IOException {
+    List<OhlcRow> out = new ArrayList<>();
+    if (p.nextToken() != JsonToken.START_ARRAY) return out;
+
+    while (p.nextToken() == JsonToken.START_ARRAY) {
+      p.nextToken();
+      long ts = p.getLongValue();
+      p.nextToken();
+      BigDecimal open = p.getDecimalValue();
+      p.nextToken();
+      BigDecimal high = p.getDecimalValue();
+      p.nextToken();
+      BigDecimal low = p.getDecimalValue();
+      p.nextToken();
+      BigDecimal close = p.getDecimalValue();
+      // Skip anything trailing in the row (future-proof against extra columns).
+      for (JsonToken t = p.nextToken(); t != null && t != JsonToken.END_ARRAY; t = p.nextToken()) {
+        p.skipChildren();
       }
-      return out;
-    } catch (Exception e) {
-      return List.of();
+      out.add(new OhlcRow(Instant.ofEpochMilli(ts), open, high, low, close));
     }
+    return out;
   }
 
   public record OhlcRow(Instant timestamp, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close) {}
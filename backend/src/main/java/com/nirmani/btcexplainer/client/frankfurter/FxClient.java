@@ -1,30 +1,69 @@
 package com.nirmani.btcexplainer.client.frankfurter;
 
 import com.nirmani.btcexplainer.util.HttpJson;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmani.btcexplainer.util.ResponseStore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import org.springframework.stereotype.Component;
 
 @Component
 public class FxClient {
   private final HttpJson http;
-  private final ObjectMapper om = new ObjectMapper();
 
   public FxClient(HttpJson http) {
     this.http = http;
   }
 
-  public BigDecimal fetchEurUsd(LocalDate date) {
-    // Frankfurter base=EUR, to=USD
-    String url = "https://api.frankfurter.app/" + date + "?from=EUR&to=USD";
-    try {
-      String body = http.get("frankfurter", url).getBody();
-      JsonNode root = om.readTree(body);
-      JsonNode rate = root.path("rates").path("USD");
-      if (!rate.isMissingNode()) return new BigDecimal(rate.asText());
-    } catch (Exception ignore) {}
-    return null;
+  /**
+   * Fetch EUR/USD for every business day in {@code [start, end]} with a single request
+   * (Frankfurter time-series endpoint {@code /{start}..{end}}).
+   *
+   * <p>Only dates the provider actually published are returned; weekends and holidays are
+   * simply absent. Provider errors are thrown (see {@link HttpJson#getJson}), so an empty map
+   * always means the provider answered without rates.</p>
+   */
+  public NavigableMap<LocalDate, BigDecimal> fetchEurUsdRange(LocalDate start, LocalDate end) {
+    String url = "https://api.frankfurter.app/" + start + ".." + end + "?from=EUR&to=USD";
+    return http.getJson("frankfurter", url, retentionFor(end), this::readRates);
+  }
+
+  /** Published ECB reference rates are final; only the last week may still fill in. */
+  private ResponseStore.Retention retentionFor(LocalDate lastDay) {
+    return lastDay.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(7))
+        ? ResponseStore.Retention.IMMUTABLE
+        : ResponseStore.Retention.ttl(Duration.ofHours(1));
+  }
+
+  /** Streams {@code {"rates": {"yyyy-MM-dd": {"USD": 1.0}, ...}}} without building a tree. */
+  private NavigableMap<LocalDate, BigDecimal> readRates(JsonParser p) throws IOException {
+    NavigableMap<LocalDate, BigDecimal> out = new TreeMap<>();
+    if (p.nextToken() != JsonToken.START_OBJECT) return out;
+
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String field = p.currentName();
+      JsonToken value = p.nextToken();
+      if (!"rates".equals(field) || value != JsonToken.START_OBJECT) {
+        p.skipChildren();
+        continue;
+      }
+      while (p.nextToken() == JsonToken.FIELD_NAME) {
+        LocalDate day = LocalDate.parse(p.currentName());
+        p.nextToken(); // START_OBJECT of the per-day quotes
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+          String quote = p.currentName();
+          p.nextToken();
+          if ("USD".equals(quote)) out.put(day, p.getDecimalValue());
+          else p.skipChildren();
+        }
+      }
+    }
+    return out;
   }
 }
@@ -1,8 +1,10 @@
 package com.nirmani.btcexplainer.client.gdelt;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.nirmani.btcexplainer.util.HttpJson;
+import com.nirmani.btcexplainer.util.ResponseStore;
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.*;
@@ -20,21 +22,25 @@ import org.springframework.stereotype.Component;
  *   <li>{@code mode=TimelineVolRaw} returns the *raw count* of matching articles per time-bucket.</li>
  *   <li>{@code mode=ArtList} returns article records (titles/urls) for a window.</li>
  * </ul>
+ *
+ * <p>Responses are consumed with a token-streaming parser: only the fields we use are read, and
+ * ArtList parsing stops once {@code maxRecords} articles are collected, so large multi-day payloads
+ * parse in bounded memory.</p>
+ *
+ * <p>Provider errors are not swallowed: timeouts, non-2xx responses and
+ * {@link com.nirmani.btcexplainer.util.ProviderPolicy.RejectedException} (breaker open, rate or
+ * bulkhead limit) propagate, so a zero count or an empty list always means GDELT answered with
+ * nothing.</p>
  */
 @Component
 public class GdeltClient {
 
   private final HttpJson http;
-  private final ObjectMapper om = new ObjectMapper();
 
   /** GDELT expects UTC datetimes in yyyyMMddHHmmss */
   private static final DateTimeFormatter GDELT_DT =
       DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
 
-  /** Some GDELT fields (e.g., seendate) can come as yyyyMMddHHmmss */
-  private static final DateTimeFormatter GDELT_SEENDATE_COMPACT =
-      DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
-
   public GdeltClient(HttpJson http) {
     this.http = http;
   }
@@ -45,34 +51,11 @@ public class GdeltClient {
    * <p>This uses {@code mode=TimelineVolRaw} and sums all buckets for the window.</p>
    */
   public int fetchNewsCount(LocalDate date, String query) {
-    Instant start = date.atStartOfDay(ZoneOffset.UTC).toInstant();
-    Instant end = date.plusDays(1).atStartOfDay(ZoneOffset.UTC).minusSeconds(1).toInstant();
-
-    String url =
-        "https://api.gdeltproject.org/api/v2/doc/doc"
-            + "?query=" + urlenc(query)
-            + "&mode=TimelineVolRaw"
-            + "&format=json"
-            + "&startdatetime=" + GDELT_DT.format(start)
-            + "&enddatetime=" + GDELT_DT.format(end);
-
-    try {
-      String body = http.get("gdelt", url).getBody();
-      JsonNode root = om.readTree(body);
-      JsonNode timeline = root.path("timeline");
-
-      if (!timeline.isArray() || timeline.isEmpty()) return 0;
-
-      long sum = 0;
-      for (JsonNode bucket : timeline) {
-        // In TimelineVolRaw, "value" is the raw count for that bucket
-        sum += bucket.path("value").asLong(0);
-      }
-      if (sum > Integer.MAX_VALUE) return Integer.MAX_VALUE;
-      return (int) sum;
-    } catch (Exception e) {
-      return 0;
-    }
+    String url = timelineUrl("TimelineVolRaw", date, query);
+    // In TimelineVolRaw, "value" is the raw count for that bucket
+    BucketStats stats = http.getJson("gdelt", url, retentionFor(date), GdeltClient::readTimeline);
+    if (stats.sum() > Integer.MAX_VALUE) return Integer.MAX_VALUE;
+    return (int) stats.sum();
   }
 
   /**
@@ -81,27 +64,10 @@ public class GdeltClient {
    * <p>This is helpful as a qualitative "intensity" metric, but should not be treated as article count.</p>
    */
   public double fetchNewsCoveragePct(LocalDate date, String query) {
-    Instant start = date.atStartOfDay(ZoneOffset.UTC).toInstant();
-    Instant end = date.plusDays(1).atStartOfDay(ZoneOffset.UTC).minusSeconds(1).toInstant();
-
-    String url =
-        "https://api.gdeltproject.org/api/v2/doc/doc"
-            + "?query=" + urlenc(query)
-            + "&mode=TimelineVol"
-            + "&format=json"
-            + "&startdatetime=" + GDELT_DT.format(start)
-            + "&enddatetime=" + GDELT_DT.format(end);
-
-    try {
-      String body = http.get("gdelt", url).getBody();
-      JsonNode root = om.readTree(body);
-      JsonNode timeline = root.path("timeline");
-      if (!timeline.isArray() || timeline.isEmpty()) return 0.0;
-      // TimelineVol "value" can be fractional (coverage share)
-      return timeline.get(0).path("value").asDouble(0.0);
-    } catch (Exception e) {
-      return 0.0;
-    }
+    String url = timelineUrl("TimelineVol", date, query);
+    // TimelineVol "value" can be fractional (coverage share); average it over the day's buckets
+    BucketStats stats = http.getJson("gdelt", url, retentionFor(date), GdeltClient::readTimeline);
+    return stats.buckets() == 0 ? 0.0 : stats.sum() / stats.buckets();
   }
 
   public List<NewsItem> fetchTopArticles(LocalDate date, String query, int maxRecords) {
@@ -118,59 +84,152 @@ public class GdeltClient {
             + "&enddatetime=" + GDELT_DT.format(end)
             + "&sort=hybridrel";
 
-    try {
-      String body = http.get("gdelt", url).getBody();
-      JsonNode root = om.readTree(body);
-      JsonNode arts = root.path("articles");
+    return http.getJson("gdelt", url, retentionFor(date), p -> readArticles(p, maxRecords));
+  }
+
+  private String timelineUrl(String mode, LocalDate date, String query) {
+    Instant start = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    Instant end = date.plusDays(1).atStartOfDay(ZoneOffset.UTC).minusSeconds(1).toInstant();
+
+    return "https://api.gdeltproject.org/api/v2/doc/doc"
+        + "?query=" + urlenc(query)
+        + "&mode=" + mode
+        + "&format=json"
+        + "&startdatetime=" + GDELT_DT.format(start)
+        + "&enddatetime=" + GDELT_DT.format(end);
+  }
 
-      List<NewsItem> out = new ArrayList<>();
-      if (arts.isArray()) {
-        for (JsonNode a : arts) {
-          String title = a.path("title").asText("");
-          String source = a.path("sourceCountry").asText("");
-          String urlLink = a.path("url").asText("");
-          String seendate = a.path("seendate").asText("");
+  /** Day windows that closed more than a day ago no longer change; recent ones are re-checked. */
+  private ResponseStore.Retention retentionFor(LocalDate date) {
+    return date.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(1))
+        ? ResponseStore.Retention.IMMUTABLE
+        : ResponseStore.Retention.ttl(Duration.ofMinutes(15));
+  }
 
-          Instant published = parseGdeltInstant(seendate);
+  record BucketStats(double sum, int buckets) {}
 
-          out.add(new NewsItem(title, source, urlLink, published));
+  /**
+   * Sums bucket values of the first series in {@code timeline}. GDELT nests buckets as
+   * {@code timeline[].data[].value}; a flat {@code timeline[].value} layout is accepted too.
+   */
+  static BucketStats readTimeline(JsonParser p) throws IOException {
+    double sum = 0;
+    int buckets = 0;
+    if (!seekArrayField(p, "timeline")) return new BucketStats(0, 0);
+
+    if (p.nextToken() != JsonToken.START_OBJECT) return new BucketStats(0, 0);
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String field = p.currentName();
+      JsonToken t = p.nextToken();
+      if ("value".equals(field) && t.isNumeric()) {
+        sum += p.getDoubleValue();
+        buckets++;
+      } else if ("data".equals(field) && t == JsonToken.START_ARRAY) {
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+          while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String f = p.currentName();
+            JsonToken v = p.nextToken();
+            if ("value".equals(f) && v.isNumeric()) {
+              sum += p.getDoubleValue();
+              buckets++;
+            } else {
+              p.skipChildren();
+            }
+          }
         }
+      } else {
+        p.skipChildren();
       }
-      return out;
-    } catch (Exception e) {
-      return List.of();
     }
+    return new BucketStats(sum, buckets);
   }
 
-  private Instant parseGdeltInstant(String raw) {
-    if (raw == null || raw.isBlank()) return null;
+  static List<NewsItem> readArticles(JsonParser p, int maxRecords) throws IOException {
+    List<NewsItem> out = new ArrayList<>();
+    if (!seekArrayField(p, "articles")) return out;
+
+    while (out.size() < maxRecords && p.nextToken() == JsonToken.START_OBJECT) {
+      String title = "";
+      String source = "";
+      String urlLink = "";
+      Instant published = null;
+      while (p.nextToken() == JsonToken.FIELD_NAME) {
+        String field = p.currentName();
+        p.nextToken();
+        switch (field) {
+          case "title" -> title = p.getValueAsString("");
+          case "url" -> urlLink = p.getValueAsString("");
+          case "sourcecountry", "sourceCountry" -> source = p.getValueAsString("");
+          case "seendate" -> published = parseGdeltInstant(p);
+          default -> p.skipChildren();
+        }
+      }
+      out.add(new NewsItem(title, source, urlLink, published));
+    }
+    // Anything past maxRecords is left unread.
+    return out;
+  }
 
-    String s = raw.trim();
+  /** Advances from the root object to the value of {@code name}; true if it is an array. */
+  static boolean seekArrayField(JsonParser p, String name) throws IOException {
+    if (p.nextToken() != JsonToken.START_OBJECT) return false;
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String field = p.currentName();
+      JsonToken t = p.nextToken();
+      if (name.equals(field)) return t == JsonToken.START_ARRAY;
+      p.skipChildren();
+    }
+    return false;
+  }
 
-    // Case 1: ISO 8601 already (e.g., 2025-12-10T00:15:00Z)
-    try {
-      if (s.contains("T") && (s.endsWith("Z") || s.contains("+"))) {
-        return Instant.parse(s);
-      }
-    } catch (Exception ignore) {}
-
-    // Case 2: "yyyy-MM-dd HH:mm:ss" (often used by APIs)
-    try {
-      if (s.contains("-") && s.contains(" ")) {
-        String iso = s.replace(" ", "T");
-        if (!iso.endsWith("Z") && !iso.contains("+")) iso = iso + "Z";
-        return Instant.parse(iso);
+  /**
+   * Parses the current string token as a UTC timestamp without allocating.
+   *
+   * <p>GDELT sends {@code seendate} as {@code yyyyMMdd'T'HHmmss'Z'}; plain {@code yyyyMMddHHmmss},
+   * {@code yyyy-MM-dd HH:mm:ss} and ISO-8601 with {@code Z} reduce to the same 14 digits once
+   * separators are skipped. Returns null if the value doesn't hold a valid date-time.</p>
+   */
+  static Instant parseGdeltInstant(JsonParser p) throws IOException {
+    if (p.currentToken() != JsonToken.VALUE_STRING) return null;
+    char[] buf = p.getTextCharacters();
+    int off = p.getTextOffset();
+    int len = p.getTextLength();
+
+    long v = 0; // the 14 digits yyyyMMddHHmmss
+    int digits = 0;
+    for (int i = off; i < off + len && digits < 14; i++) {
+      char c = buf[i];
+      if (c >= '0' && c <= '9') {
+        v = v * 10 + (c - '0');
+        digits++;
+      } else if (c != 'T' && c != '-' && c != ':' && c != ' ' && c != 'Z') {
+        return null;
       }
-    } catch (Exception ignore) {}
+    }
+    if (digits < 14) return null;
+    int s = (int) (v % 100);
+    int mi = (int) (v / 100 % 100);
+    int h = (int) (v / 10_000 % 100);
+    int d = (int) (v / 1_000_000 % 100);
+    int mo = (int) (v / 100_000_000 % 100);
+    int y = (int) (v / 10_000_000_000L);
+    if (mo < 1 || mo > 12 || d < 1 || d > daysInMonth(y, mo) || h > 23 || mi > 59 || s > 59) return null;
+    return Instant.ofEpochSecond(epochDay(y, mo, d) * 86_400L + h * 3_600L + mi * 60L + s);
+  }
 
-    // Case 3: compact "yyyyMMddHHmmss"
-    try {
-      if (s.matches("\\d{14}")) {
-        return ZonedDateTime.parse(s, GDELT_SEENDATE_COMPACT).toInstant();
-      }
-    } catch (Exception ignore) {}
+  private static int daysInMonth(int y, int m) {
+    if (m == 2) return (y % 4 == 0 && (y % 100 != 0 || y % 400 == 0)) ? 29 : 28;
+    return (m == 4 || m == 6 || m == 9 || m == 11) ? 30 : 31;
+  }
 
-    return null;
+  /** Days since 1970-01-01 for a proleptic Gregorian date (civil-from-days inverse). */
+  private static long epochDay(int y, int m, int d) {
+    y -= m <= 2 ? 1 : 0;
+    long era = Math.floorDiv(y, 400);
+    long yoe = y - era * 400;
+    long doy = (153L * (m + (m > 2 ? -3 : 9)) + 2) / 5 + d - 1;
+    long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+    return era * 146_097 + doe - 719_468;
   }
 
   private String urlenc(String s) {
@@ -0,0 +1,99 @@
+package com.nirmani.btcexplainer.client.openai;
+
+import com.nirmani.btcexplainer.util.ProviderPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Requests-per-minute and tokens-per-minute budget for OpenAI, mirroring the account limits so
+ * bursts (e.g. the nightly regeneration) wait locally instead of collecting 429s.
+ *
+ * <p>Both budgets are token buckets that refill continuously over a minute. A call reserves one
+ * request and an estimate of its tokens up front; {@link #settle} corrects the token bucket once
+ * the response reports actual usage. Callers that cannot be served within
+ * {@code openai.budget.max-wait-ms} get a {@link ProviderPolicy.RejectedException}.</p>
+ */
+@Component
+public class OpenAiBudget {
+
+  private final double requestsPerMinute;
+  private final double tokensPerMinute;
+  private final long maxWaitMs;
+
+  // guarded by this
+  private double requests;
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+
+  private final AtomicLong waitedMs = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+
+  public OpenAiBudget(
+      @Value("${openai.budget.requests-per-minute:60}") double requestsPerMinute,
+      @Value("${openai.budget.tokens-per-minute:60000}") double tokensPerMinute,
+      @Value("${openai.budget.max-wait-ms:60000}") long maxWaitMs,
+      MeterRegistry meters) {
+    this.requestsPerMinute = Math.max(1, requestsPerMinute);
+    this.tokensPerMinute = Math.max(1, tokensPerMinute);
+    this.maxWaitMs = maxWaitMs;
+    this.requests = this.requestsPerMinute;
+    this.tokens = this.tokensPerMinute;
+    FunctionCounter.builder("openai.budget.waited_ms", waitedMs, AtomicLong::get).register(meters);
+    FunctionCounter.builder("openai.budget.rejected", rejected, AtomicLong::get).register(meters);
+  }
+
+  /** Blocks (bounded) until one request and {@code estimatedTokens} fit the budget. */
+  public void acquire(long estimatedTokens) {
+    // A single call larger than the whole minute budget could never be served; cap it.
+    double need = Math.min(estimatedTokens, tokensPerMinute);
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+    try {
+      while (true) {
+        long sleepNanos;
+        synchronized (this) {
+          refill();
+          if (requests >= 1 && tokens >= need) {
+            requests -= 1;
+            tokens -= need;
+            return;
+          }
+          double reqWait = requests >= 1 ? 0 : (1 - requests) / requestsPerMinute;
+          double tokWait = tokens >= need ? 0 : (need - tokens) / tokensPerMinute;
+          sleepNanos = (long) (Math.max(reqWait, tokWait) * TimeUnit.MINUTES.toNanos(1)) + 1;
+        }
+        if (System.nanoTime() + sleepNanos > deadline) {
+          rejected.incrementAndGet();
+          throw new ProviderPolicy.RejectedException("openai", "request/token budget exhausted");
+        }
+        try {
+          TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new ProviderPolicy.RejectedException("openai", "interrupted");
+        }
+      }
+    } finally {
+      waitedMs.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+  }
+
+  /** Correct the token bucket with the usage the API reported (negative balance is allowed). */
+  public synchronized void settle(long estimatedTokens, long actualTokens) {
+    if (actualTokens <= 0) return;
+    refill();
+    tokens += Math.min(estimatedTokens, tokensPerMinute) - actualTokens;
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    double minutes = (now - lastRefillNanos) / (double) TimeUnit.MINUTES.toNanos(1);
+    lastRefillNanos = now;
+    requests = Math.min(requestsPerMinute, requests + minutes * requestsPerMinute);
+    tokens = Math.min(tokensPerMinute, tokens + minutes * tokensPerMinute);
+  }
+}
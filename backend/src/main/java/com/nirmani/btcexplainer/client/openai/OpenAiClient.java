@@ -2,12 +2,20 @@ package com.nirmani.btcexplainer.client.openai;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.nirmani.btcexplainer.domain.ops.ApiCallLogRepository;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -15,6 +23,7 @@ import org.springframework.stereotype.Component;
 public class OpenAiClient {
 
   private final ApiCallLogRepository logRepo;
+  private final OpenAiBudget budget;
   private final ObjectMapper om = new ObjectMapper();
   private final HttpClient http = HttpClient.newBuilder()
       .connectTimeout(Duration.ofSeconds(10))
@@ -29,12 +38,29 @@ public class OpenAiClient {
   @Value("${openai.enabled:true}")
   private boolean enabled;
 
-  public OpenAiClient(ApiCallLogRepository logRepo) {
+  /**
+   * Upper bound for a whole streamed completion. The request timeout only covers the wait for
+   * response headers; past this deadline the body stream is closed and the call fails.
+   */
+  @Value("${openai.stream.deadline-ms:60000}")
+  private long streamDeadlineMs;
+
+  /** Completion tokens reserved per call on top of the prompt estimate (see {@link OpenAiBudget}). */
+  @Value("${openai.budget.completion-tokens-estimate:400}")
+  private int completionTokensEstimate;
+
+  public OpenAiClient(ApiCallLogRepository logRepo, OpenAiBudget budget) {
     this.logRepo = logRepo;
+    this.budget = budget;
   }
 
   public record ChatResult(String content, String modelUsed) {}
 
+  /** Model requested for completions (part of narrative cache keys). */
+  public String configuredModel() {
+    return model;
+  }
+
   public ChatResult chat(String userPrompt, double temperature) throws Exception {
     if (!enabled) {
       throw new IllegalStateException("OpenAI is disabled");
@@ -51,6 +77,10 @@ public class OpenAiClient {
                 .add(om.createObjectNode().put("role", "user").put("content", userPrompt)))
     );
 
+    // Rough prompt size: ~4 characters per token.
+    long estimatedTokens = userPrompt.length() / 4L + completionTokensEstimate;
+    budget.acquire(estimatedTokens);
+
     long start = System.currentTimeMillis();
     HttpRequest req = HttpRequest.newBuilder()
         .uri(URI.create("https://api.openai.com/v1/chat/completions"))
@@ -60,21 +90,132 @@ public class OpenAiClient {
         .POST(HttpRequest.BodyPublishers.ofString(body))
         .build();
 
+    HttpResponse<String> resp;
     try {
-      HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-      logRepo.log("openai", "/v1/chat/completions", resp.statusCode(), (int) (System.currentTimeMillis() - start), null);
+      resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+    } catch (Exception e) {
+      logRepo.log("openai", "/v1/chat/completions", null, (int) (System.currentTimeMillis() - start), e.getMessage());
+      throw e;
+    }
+    logRepo.log("openai", "/v1/chat/completions", resp.statusCode(), (int) (System.currentTimeMillis() - start), null);
+    if (resp.statusCode() < 200 || resp.statusCode() >= 300) {
+      throw new RuntimeException("OpenAI HTTP " + resp.statusCode() + ": " + resp.body());
+    }
 
-      if (resp.statusCode() < 200 || resp.statusCode() >= 300) {
-        throw new RuntimeException("OpenAI HTTP " + resp.statusCode() + ": " + resp.body());
-      }
+    try {
 
       JsonNode root = om.readTree(resp.body());
+      budget.settle(estimatedTokens, root.path("usage").path("total_tokens").asLong(0));
       String content = root.path("choices").get(0).path("message").path("content").asText();
       String usedModel = root.path("model").asText(model);
       return new ChatResult(content, usedModel);
+    } catch (Exception e) {
+      throw new RuntimeException("OpenAI returned an unreadable completion", e);
+    }
+  }
+
+  /**
+   * Streaming variant of {@link #chat}: sends {@code stream=true} and hands every content delta to
+   * {@code onDelta} as the server-sent chunks arrive. Returns the concatenated text once the
+   * stream ends. Same budget, logging and error semantics as {@code chat}; a stream still open
+   * after {@code openai.stream.deadline-ms} fails with a {@link TimeoutException}.
+   */
+  public ChatResult chatStream(String userPrompt, double temperature, Consumer<String> onDelta) throws Exception {
+    if (!enabled) {
+      throw new IllegalStateException("OpenAI is disabled");
+    }
+    if (apiKey == null || apiKey.isBlank()) {
+      throw new IllegalStateException("OPENAI_API_KEY is not configured");
+    }
+
+    ObjectNode payload = om.createObjectNode()
+        .put("model", model)
+        .put("temperature", temperature)
+        .put("stream", true);
+    payload.putObject("stream_options").put("include_usage", true);
+    payload.set("messages", om.createArrayNode()
+        .add(om.createObjectNode().put("role", "user").put("content", userPrompt)));
+    String body = om.writeValueAsString(payload);
+
+    long estimatedTokens = userPrompt.length() / 4L + completionTokensEstimate;
+    budget.acquire(estimatedTokens);
+
+    long start = System.currentTimeMillis();
+    HttpRequest req = HttpRequest.newBuilder()
+        .uri(URI.create("https://api.openai.com/v1/chat/completions"))
+        .timeout(Duration.ofSeconds(25)) // time to response headers; tokens then flow as produced
+        .header("Authorization", "Bearer " + apiKey)
+        .header("Content-Type", "application/json")
+        .header("Accept", "text/event-stream")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+
+    HttpResponse<Stream<String>> resp;
+    try {
+      resp = http.send(req, HttpResponse.BodyHandlers.ofLines());
     } catch (Exception e) {
       logRepo.log("openai", "/v1/chat/completions", null, (int) (System.currentTimeMillis() - start), e.getMessage());
       throw e;
     }
+
+    // A stalled body would block the iterator forever: close it at the deadline, which makes the
+    // blocked read fail. Whoever flips `closed` first owns the close.
+    Stream<String> lines = resp.body();
+    AtomicBoolean closed = new AtomicBoolean();
+    AtomicBoolean timedOut = new AtomicBoolean();
+    long remainingMs = Math.max(1, start + streamDeadlineMs - System.currentTimeMillis());
+    CompletableFuture.runAsync(() -> {
+      if (closed.compareAndSet(false, true)) {
+        timedOut.set(true);
+        lines.close();
+      }
+    }, CompletableFuture.delayedExecutor(remainingMs, TimeUnit.MILLISECONDS));
+
+    boolean ok = resp.statusCode() >= 200 && resp.statusCode() < 300;
+    String err = null;
+    StringBuilder content = new StringBuilder();
+    String usedModel = model;
+    long usedTokens = 0;
+    try {
+      if (!ok) {
+        err = String.join("\n", lines.limit(50).toList());
+      } else {
+        Iterator<String> it = lines.iterator();
+        while (it.hasNext()) {
+          String line = it.next();
+          if (!line.startsWith("data:")) continue;
+          String data = line.substring(5).trim();
+          if (data.equals("[DONE]")) break;
+
+          JsonNode chunk = om.readTree(data);
+          usedModel = chunk.path("model").asText(usedModel);
+          if (chunk.path("usage").isObject()) usedTokens = chunk.path("usage").path("total_tokens").asLong(0);
+
+          JsonNode choices = chunk.path("choices");
+          if (choices.isArray() && !choices.isEmpty()) {
+            String delta = choices.get(0).path("delta").path("content").asText("");
+            if (!delta.isEmpty()) {
+              content.append(delta);
+              if (onDelta != null) onDelta.accept(delta);
+            }
+          }
+        }
+      }
+    } catch (Exception e) {
+      Exception failure = timedOut.get()
+          ? new TimeoutException("OpenAI stream exceeded " + streamDeadlineMs + " ms")
+          : e;
+      logRepo.log("openai", "/v1/chat/completions", null, (int) (System.currentTimeMillis() - start), failure.getMessage());
+      throw failure;
+    } finally {
+      if (closed.compareAndSet(false, true)) lines.close();
+    }
+
+    logRepo.log("openai", "/v1/chat/completions", resp.statusCode(), (int) (System.currentTimeMillis() - start), null);
+    if (!ok) {
+      throw new RuntimeException("OpenAI HTTP " + resp.statusCode() + ": " + err);
+    }
+    budget.settle(estimatedTokens, usedTokens);
+    return new ChatResult(content.toString(), usedModel);
   }
 }
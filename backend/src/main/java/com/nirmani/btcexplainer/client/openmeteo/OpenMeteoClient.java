@@ -1,11 +1,14 @@
 package com.nirmani.btcexplainer.client.openmeteo;
 
 import com.nirmani.btcexplainer.util.HttpJson;
+import com.nirmani.btcexplainer.util.ResponseStore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Map;
 import org.springframework.stereotype.Component;
@@ -23,6 +26,7 @@ public class OpenMeteoClient {
   /**
    * Fetch daily weather for a location for a single date.
    * We use this only to demonstrate "extreme weather" signals (optional factor).
+   * Returns null if the provider has no values for the day; provider errors propagate.
    */
   public DailyWx fetchDaily(LocalDate date, double lat, double lon) {
     String url = "https://api.open-meteo.com/v1/forecast"
@@ -32,18 +36,17 @@ public class OpenMeteoClient {
         + "&end_date=" + date
         + "&daily=temperature_2m_max,precipitation_sum,wind_speed_10m_max"
         + "&timezone=UTC";
-    try {
-      String body = http.get("open-meteo", url).getBody();
-      JsonNode root = om.readTree(body);
-      JsonNode daily = root.path("daily");
-      if (daily.isMissingNode()) return null;
-
-      double tmax = daily.path("temperature_2m_max").get(0).asDouble();
-      double precip = daily.path("precipitation_sum").get(0).asDouble();
-      double wind = daily.path("wind_speed_10m_max").get(0).asDouble();
-      return new DailyWx(tmax, precip, wind);
-    } catch (Exception ignore) {}
-    return null;
+    // Observed days settle after about a week; anything newer may still be revised.
+    ResponseStore.Retention retention = date.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(7))
+        ? ResponseStore.Retention.IMMUTABLE
+        : ResponseStore.Retention.ttl(Duration.ofHours(3));
+    JsonNode root = http.getJson("open-meteo", url, retention, om::readTree);
+    JsonNode daily = root.path("daily");
+    JsonNode tmax = daily.path("temperature_2m_max").path(0);
+    JsonNode precip = daily.path("precipitation_sum").path(0);
+    JsonNode wind = daily.path("wind_speed_10m_max").path(0);
+    if (!tmax.isNumber() || !precip.isNumber() || !wind.isNumber()) return null;
+    return new DailyWx(tmax.asDouble(), precip.asDouble(), wind.asDouble());
   }
 
   public record DailyWx(double tmaxC, double precipMm, double windMaxKmh) {}
@@ -12,7 +12,7 @@ public class CacheConfig {
 
   @Bean
   public CacheManager cacheManager() {
-    CaffeineCacheManager mgr = new CaffeineCacheManager("chart", "events", "explanations");
+    CaffeineCacheManager mgr = new CaffeineCacheManager("explanations");
     mgr.setCaffeine(Caffeine.newBuilder()
         .maximumSize(10_000)
         .expireAfterWrite(Duration.ofHours(6)));
@@ -0,0 +1,25 @@
+package com.nirmani.btcexplainer.config;
+
+import com.nirmani.btcexplainer.util.ProviderPolicies;
+import com.nirmani.btcexplainer.util.ProviderPolicy;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** {@code /actuator/providers}: limiter, bulkhead and circuit-breaker state per outbound provider. */
+@Component
+@Endpoint(id = "providers")
+public class ProvidersEndpoint {
+
+  private final ProviderPolicies policies;
+
+  public ProvidersEndpoint(ProviderPolicies policies) {
+    this.policies = policies;
+  }
+
+  @ReadOperation
+  public Map<String, ProviderPolicy.Snapshot> providers() {
+    return policies.snapshot();
+  }
+}
@@ -1,8 +1,42 @@
 package com.nirmani.btcexplainer.config;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 @Configuration
 public class SchedulerConfig {
-  // placeholder for future scheduler tuning
+
+  /**
+   * Small pool used to fan out GDELT lookups for a single date (count, coverage and headline
+   * queries run side by side instead of one after another).
+   */
+  @Bean(name = "gdeltExecutor", destroyMethod = "shutdownNow")
+  public ExecutorService gdeltExecutor(@Value("${app.news.fanout-threads:8}") int threads) {
+    CustomizableThreadFactory tf = new CustomizableThreadFactory("gdelt-");
+    tf.setDaemon(true);
+    return Executors.newFixedThreadPool(Math.max(1, threads), tf);
+  }
+
+  /**
+   * Bounded pool for SSE narrative streams ({@code /api/explain/{id}/stream}). Each stream holds a
+   * thread for the length of the OpenAI completion; when all threads and queue slots are taken,
+   * submissions are rejected and the endpoint answers 503.
+   */
+  @Bean(name = "explainStreamExecutor", destroyMethod = "shutdownNow")
+  public ExecutorService explainStreamExecutor(
+      @Value("${app.explain.stream.threads:4}") int threads,
+      @Value("${app.explain.stream.queue-capacity:16}") int queueCapacity) {
+    CustomizableThreadFactory tf = new CustomizableThreadFactory("explain-stream-");
+    tf.setDaemon(true);
+    int n = Math.max(1, threads);
+    return new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), tf);
+  }
 }
@@ -0,0 +1,39 @@
+package com.nirmani.btcexplainer.domain.event;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Per-asset progress of incremental event detection ({@code event_detection_watermark}). */
+@Repository
+public class DetectionWatermarkRepository {
+  private final JdbcTemplate jdbc;
+
+  public DetectionWatermarkRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Newest candle {@code changed_at} already processed, and the settings it was processed with. */
+  public record Watermark(Instant candleChangedAt, String config) {}
+
+  public Optional<Watermark> find(Long assetId) {
+    List<Watermark> rows = jdbc.query(
+        "SELECT candle_changed_at, config FROM event_detection_watermark WHERE asset_id = ?",
+        (rs, i) -> new Watermark(rs.getTimestamp(1).toInstant(), rs.getString(2)),
+        assetId);
+    return rows.stream().findFirst();
+  }
+
+  public void save(Long assetId, Watermark w) {
+    jdbc.update("""
+        INSERT INTO event_detection_watermark(asset_id, candle_changed_at, config)
+        VALUES (?,?,?)
+        ON CONFLICT (asset_id)
+        DO UPDATE SET candle_changed_at = EXCLUDED.candle_changed_at, config = EXCLUDED.config, updated_at = now()
+        """,
+        assetId, Timestamp.from(w.candleChangedAt()), w.config());
+  }
+}
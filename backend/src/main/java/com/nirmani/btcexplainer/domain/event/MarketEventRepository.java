@@ -1,6 +1,7 @@
 package com.nirmani.btcexplainer.domain.event;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -43,5 +44,19 @@ public interface MarketEventRepository extends JpaRepository<MarketEvent, Long>
       @Param("startDate") LocalDate startDate
   );
 
+  @Query("""
+      select e
+      from MarketEvent e
+      where e.asset.id = :assetId
+        and e.eventDate in :eventDates
+      """)
+  List<MarketEvent> findByAssetAndDates(
+      @Param("assetId") Long assetId,
+      @Param("eventDates") Collection<LocalDate> eventDates
+  );
+
+  @Query("select distinct e.eventDate from MarketEvent e order by e.eventDate asc")
+  List<LocalDate> findAllEventDates();
+
   long deleteByAssetIdAndEventDateBefore(Long assetId, LocalDate cutoffDate);
 }
@@ -3,6 +3,8 @@ package com.nirmani.btcexplainer.domain.explanation;
 import com.nirmani.btcexplainer.domain.event.MarketEvent;
 import jakarta.persistence.*;
 import java.time.Instant;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(name = "event_explanations")
@@ -21,7 +23,9 @@ public class EventExplanation {
   @Column(nullable = false)
   private String confidence;
 
-  @Column(name = "factors_json", nullable = false, columnDefinition = "TEXT")
+  /** JSON array of {@link Factor}, written by {@link FactorCodec}. */
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(name = "factors_json", nullable = false, columnDefinition = "jsonb")
   private String factorsJson;
 
   @Column(name = "generated_at", nullable = false)
@@ -52,6 +56,7 @@ public class EventExplanation {
   public String getFactorsJson() { return factorsJson; }
   public void setFactorsJson(String factorsJson) { this.factorsJson = factorsJson; }
   public Instant getGeneratedAt() { return generatedAt; }
+  public void setGeneratedAt(Instant generatedAt) { this.generatedAt = generatedAt; }
 
   public String getAiExplanationText() { return aiExplanationText; }
   public void setAiExplanationText(String aiExplanationText) { this.aiExplanationText = aiExplanationText; }
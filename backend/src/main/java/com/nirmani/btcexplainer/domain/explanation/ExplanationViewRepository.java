@@ -0,0 +1,95 @@
+package com.nirmani.btcexplainer.domain.explanation;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Read-only projection of an event and its stored explanation, fetched in one round trip and
+ * without loading entities. Used by the explain read path; writes go through JPA.
+ */
+@Repository
+public class ExplanationViewRepository {
+  private final JdbcTemplate jdbc;
+
+  public ExplanationViewRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Event columns are always set; explanation columns are null when none is stored ({@code stored=false}). */
+  public record View(
+      long eventId,
+      LocalDate eventDate,
+      String direction,
+      BigDecimal pctChange,
+      boolean stored,
+      String confidence,
+      String summaryText,
+      String aiExplanationText,
+      String aiExplanationSource,
+      String aiModel,
+      String factorsJson,
+      Instant generatedAt,
+      Instant aiGeneratedAt
+  ) {}
+
+  private static final String SELECT = """
+      SELECT e.id, e.event_date, e.direction, e.pct_change,
+             x.id, x.confidence, x.summary_text, x.ai_explanation_text, x.ai_explanation_source,
+             x.ai_model, x.factors_json::text, x.generated_at, x.ai_generated_at
+      FROM market_events e
+      LEFT JOIN event_explanations x ON x.event_id = e.id
+      """;
+
+  /** Empty if the event does not exist. */
+  public Optional<View> find(long eventId) {
+    List<View> rows = jdbc.query(SELECT + "WHERE e.id = ?", ExplanationViewRepository::map, eventId);
+    return rows.stream().findFirst();
+  }
+
+  /** Views for the given events in one {@code IN} query; ids without an event are absent. */
+  public List<View> findAll(Collection<Long> eventIds) {
+    if (eventIds.isEmpty()) return List.of();
+    String in = String.join(",", Collections.nCopies(eventIds.size(), "?"));
+    return jdbc.query(SELECT + "WHERE e.id IN (" + in + ")", ExplanationViewRepository::map, eventIds.toArray());
+  }
+
+  /** Views for events dated within [from, to], newest first, at most {@code limit}. */
+  public List<View> findBetween(LocalDate from, LocalDate to, int limit) {
+    return jdbc.query(SELECT + "WHERE e.event_date BETWEEN ? AND ? ORDER BY e.event_date DESC LIMIT ?",
+        ExplanationViewRepository::map, Date.valueOf(from), Date.valueOf(to), limit);
+  }
+
+  private static View map(ResultSet rs, int i) throws SQLException {
+    rs.getLong(5);
+    boolean stored = !rs.wasNull();
+    return new View(
+        rs.getLong(1),
+        rs.getDate(2).toLocalDate(),
+        rs.getString(3),
+        rs.getBigDecimal(4),
+        stored,
+        rs.getString(6),
+        rs.getString(7),
+        rs.getString(8),
+        rs.getString(9),
+        rs.getString(10),
+        rs.getString(11),
+        instant(rs.getTimestamp(12)),
+        instant(rs.getTimestamp(13)));
+  }
+
+  private static Instant instant(Timestamp ts) {
+    return ts == null ? null : ts.toInstant();
+  }
+}
@@ -0,0 +1,88 @@
+package com.nirmani.btcexplainer.domain.explanation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One scored signal of an explanation, as stored in {@code event_explanations.factors_json}.
+ *
+ * <p>The JSON shape is {@code {"score": .., "evidence": {..}, "name": ".."}}: the factor name
+ * doubles as the type id of its evidence, so each name maps to exactly one {@link Evidence}
+ * record. Optional evidence fields are omitted when null. Read and write through
+ * {@link FactorCodec}.</p>
+ */
+public record Factor(
+    int score,
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXTERNAL_PROPERTY, property = "name")
+    Evidence evidence
+) {
+
+  public static final String NEWS = "News activity";
+  public static final String SENTIMENT = "Market sentiment (Fear & Greed)";
+  public static final String FX = "FX context (EUR/USD)";
+  public static final String WEATHER = "Extreme weather signals (demo)";
+
+  /** Display name; determined by the evidence type. */
+  public String name() {
+    return evidence.factorName();
+  }
+
+  @JsonSubTypes({
+      @JsonSubTypes.Type(NewsEvidence.class),
+      @JsonSubTypes.Type(SentimentEvidence.class),
+      @JsonSubTypes.Type(FxEvidence.class),
+      @JsonSubTypes.Type(WeatherEvidence.class)
+  })
+  public sealed interface Evidence permits NewsEvidence, SentimentEvidence, FxEvidence, WeatherEvidence {
+    String factorName();
+  }
+
+  /** Article volume and sample headlines; {@code explanation}/{@code confidence} are set when nothing matched. */
+  @JsonTypeName(NEWS)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record NewsEvidence(
+      int articlesCount,
+      Double coveragePct,
+      String queryTag,
+      List<String> sampleHeadlines,
+      String note,
+      String explanation,
+      String confidence
+  ) implements Evidence {
+    @Override public String factorName() { return NEWS; }
+  }
+
+  /** Fear &amp; Greed reading, or {@code status=unavailable}. */
+  @JsonTypeName(SENTIMENT)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record SentimentEvidence(Integer value, String classification, String status) implements Evidence {
+    @Override public String factorName() { return SENTIMENT; }
+  }
+
+  /** EUR/USD rate and day change, or {@code status=unavailable} with an explanation. */
+  @JsonTypeName(FX)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record FxEvidence(
+      BigDecimal eurUsdRate,
+      LocalDate sourceDate,
+      BigDecimal dayChangePct,
+      String status,
+      String explanation,
+      String confidence
+  ) implements Evidence {
+    @Override public String factorName() { return FX; }
+  }
+
+  @JsonTypeName(WEATHER)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record WeatherEvidence(List<WeatherSignal> signals) implements Evidence {
+    @Override public String factorName() { return WEATHER; }
+  }
+
+  public record WeatherSignal(String region, String type, Double severity) {}
+}
@@ -0,0 +1,59 @@
+package com.nirmani.btcexplainer.domain.explanation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.util.List;
+
+/**
+ * Precompiled Jackson reader/writers for {@code List<Factor>}. Type resolution and serializer
+ * lookup happen once here instead of on every explanation.
+ */
+public final class FactorCodec {
+
+  private static final TypeReference<List<Factor>> LIST = new TypeReference<>() {};
+
+  private static final ObjectMapper MAPPER = builder().build();
+
+  /** Sorted properties: a stable byte form for hashing (see narrative fingerprints). */
+  private static final ObjectMapper CANONICAL_MAPPER = builder()
+      .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+      .build();
+
+  private static final ObjectReader READER = MAPPER.readerFor(LIST);
+  private static final ObjectWriter WRITER = MAPPER.writerFor(LIST);
+  private static final ObjectWriter PRETTY = WRITER.withDefaultPrettyPrinter();
+  private static final ObjectWriter CANONICAL = CANONICAL_MAPPER.writerFor(LIST);
+
+  private FactorCodec() {}
+
+  private static JsonMapper.Builder builder() {
+    return JsonMapper.builder()
+        // Dates stay [y,m,d] arrays, the shape stored rows have always used.
+        .addModule(new JavaTimeModule())
+        // Rows written by older versions may carry fields the records no longer have.
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+
+  public static List<Factor> read(String json) throws JsonProcessingException {
+    return READER.readValue(json);
+  }
+
+  public static String write(List<Factor> factors) throws JsonProcessingException {
+    return WRITER.writeValueAsString(factors);
+  }
+
+  public static String writePretty(List<Factor> factors) throws JsonProcessingException {
+    return PRETTY.writeValueAsString(factors);
+  }
+
+  public static String writeCanonical(List<Factor> factors) throws JsonProcessingException {
+    return CANONICAL.writeValueAsString(factors);
+  }
+}
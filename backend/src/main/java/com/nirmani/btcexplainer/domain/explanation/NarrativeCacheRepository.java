@@ -0,0 +1,39 @@
+package com.nirmani.btcexplainer.domain.explanation;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class NarrativeCacheRepository {
+  private final JdbcTemplate jdbc;
+
+  public NarrativeCacheRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public record Entry(String fingerprint, int templateVersion, String narrativeText, String model) {}
+
+  public Optional<Entry> find(String fingerprint) {
+    List<Entry> rows = jdbc.query(
+        "SELECT fingerprint, template_version, narrative_text, model FROM ai_narrative_cache WHERE fingerprint = ?",
+        (rs, i) -> new Entry(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getString(4)),
+        fingerprint);
+    return rows.stream().findFirst();
+  }
+
+  /** First writer wins; a concurrent duplicate generation keeps the stored narrative. */
+  public void insert(Entry e) {
+    jdbc.update("""
+        INSERT INTO ai_narrative_cache(fingerprint, template_version, narrative_text, model)
+        VALUES (?,?,?,?)
+        ON CONFLICT (fingerprint) DO NOTHING
+        """,
+        e.fingerprint(), e.templateVersion(), e.narrativeText(), e.model());
+  }
+
+  public void touch(String fingerprint) {
+    jdbc.update("UPDATE ai_narrative_cache SET last_hit_at = now() WHERE fingerprint = ?", fingerprint);
+  }
+}
@@ -1,18 +1,180 @@
 package com.nirmani.btcexplainer.domain.ops;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Non-blocking sink for {@code api_call_log}.
+ *
+ * <p>{@link #log} only enqueues; a background writer drains the bounded queue and writes
+ * multi-row INSERTs once {@code batch-size} rows are waiting or {@code flush-interval-ms}
+ * has passed. What happens when the queue is full is controlled by {@link OverflowPolicy}.
+ * Remaining rows are flushed on shutdown.</p>
+ */
 @Repository
 public class ApiCallLogRepository {
+
+  private static final Logger log = LoggerFactory.getLogger(ApiCallLogRepository.class);
+
+  public enum OverflowPolicy {
+    /** Discard the entry being logged (default; never slows the caller). */
+    DROP_NEWEST,
+    /** Evict the oldest queued entry to make room. */
+    DROP_OLDEST,
+    /** Write the entry synchronously on the caller thread (old behaviour). */
+    SYNC
+  }
+
   private final JdbcTemplate jdbc;
+  private final MeterRegistry meters;
+
+  private final AtomicLong queued = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+
+  @Value("${app.api-log.queue-capacity:10000}")
+  private int capacity;
 
-  public ApiCallLogRepository(JdbcTemplate jdbc) {
+  @Value("${app.api-log.batch-size:200}")
+  private int batchSize;
+
+  @Value("${app.api-log.flush-interval-ms:2000}")
+  private long flushIntervalMs;
+
+  @Value("${app.api-log.overflow-policy:DROP_NEWEST}")
+  private OverflowPolicy overflowPolicy;
+
+  private BlockingQueue<Entry> queue;
+  private Thread writer;
+  private volatile boolean running;
+
+  public ApiCallLogRepository(JdbcTemplate jdbc, MeterRegistry meters) {
     this.jdbc = jdbc;
+    this.meters = meters;
+  }
+
+  @PostConstruct
+  void start() {
+    queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    batchSize = Math.max(1, batchSize);
+
+    Gauge.builder("api_call_log.queue.size", queue, BlockingQueue::size).register(meters);
+    FunctionCounter.builder("api_call_log.queued", queued, AtomicLong::get).register(meters);
+    FunctionCounter.builder("api_call_log.written", written, AtomicLong::get).register(meters);
+    FunctionCounter.builder("api_call_log.dropped", dropped, AtomicLong::get).register(meters);
+
+    running = true;
+    writer = new Thread(this::drainLoop, "api-call-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+    writer.interrupt();
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Whatever the writer didn't get to is flushed from the shutdown thread.
+    List<Entry> rest = new ArrayList<>();
+    queue.drainTo(rest);
+    for (int i = 0; i < rest.size(); i += batchSize) {
+      write(rest.subList(i, Math.min(rest.size(), i + batchSize)));
+    }
   }
 
   public void log(String provider, String endpoint, Integer status, Integer latencyMs, String error) {
-    jdbc.update("INSERT INTO api_call_log(provider, endpoint, http_status, latency_ms, error_message) VALUES (?,?,?,?,?)",
-        provider, endpoint, status, latencyMs, error);
+    Entry e = new Entry(provider, endpoint, status, latencyMs, error, Instant.now());
+    if (queue.offer(e)) {
+      queued.incrementAndGet();
+      return;
+    }
+    switch (overflowPolicy) {
+      case DROP_OLDEST -> {
+        if (queue.poll() != null) dropped.incrementAndGet();
+        if (queue.offer(e)) queued.incrementAndGet();
+        else dropped.incrementAndGet();
+      }
+      case SYNC -> write(List.of(e));
+      default -> dropped.incrementAndGet();
+    }
   }
+
+  public long queuedCount() { return queued.get(); }
+  public long writtenCount() { return written.get(); }
+  public long droppedCount() { return dropped.get(); }
+
+  private void drainLoop() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (running) {
+      try {
+        Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) continue;
+        batch.add(first);
+
+        // Keep collecting until the batch is full or the flush interval runs out.
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+          queue.drainTo(batch, batchSize - batch.size());
+          long remaining = deadline - System.nanoTime();
+          if (batch.size() >= batchSize || remaining <= 0) break;
+          Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) break;
+          batch.add(next);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+      if (!batch.isEmpty()) {
+        write(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  private void write(List<Entry> batch) {
+    StringBuilder sql = new StringBuilder(
+        "INSERT INTO api_call_log(provider, endpoint, http_status, latency_ms, error_message, called_at) VALUES ");
+    Object[] args = new Object[batch.size() * 6];
+    int i = 0;
+    for (Entry e : batch) {
+      if (i > 0) sql.append(',');
+      sql.append("(?,?,?,?,?,?)");
+      args[i++] = e.provider();
+      args[i++] = e.endpoint();
+      args[i++] = e.status();
+      args[i++] = e.latencyMs();
+      args[i++] = e.error();
+      args[i++] = Timestamp.from(e.calledAt());
+    }
+    try {
+      jdbc.update(sql.toString(), args);
+      written.addAndGet(batch.size());
+    } catch (Exception ex) {
+      dropped.addAndGet(batch.size());
+      log.warn("Failed to write {} api_call_log rows: {}", batch.size(), ex.getMessage());
+    }
+  }
+
+  private record Entry(String provider, String endpoint, Integer status, Integer latencyMs, String error, Instant calledAt) {}
 }
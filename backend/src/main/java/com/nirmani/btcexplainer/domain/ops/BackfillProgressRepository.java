@@ -0,0 +1,51 @@
+package com.nirmani.btcexplainer.domain.ops;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class BackfillProgressRepository {
+
+  public static final String NEWS = "news";
+  public static final String FX = "fx";
+  public static final String SENTIMENT = "sentiment";
+
+  private final JdbcTemplate jdbc;
+
+  public BackfillProgressRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public boolean isDone(String signal, LocalDate date) {
+    Integer n = jdbc.queryForObject(
+        "SELECT count(*) FROM backfill_progress WHERE signal = ? AND signal_date = ?",
+        Integer.class, signal, Date.valueOf(date));
+    return n != null && n > 0;
+  }
+
+  public Set<LocalDate> doneBetween(String signal, LocalDate from, LocalDate to) {
+    List<LocalDate> rows = jdbc.query(
+        "SELECT signal_date FROM backfill_progress WHERE signal = ? AND signal_date BETWEEN ? AND ?",
+        (rs, i) -> rs.getDate(1).toLocalDate(),
+        signal, Date.valueOf(from), Date.valueOf(to));
+    return new HashSet<>(rows);
+  }
+
+  public void markDone(String signal, Collection<LocalDate> dates) {
+    if (dates.isEmpty()) return;
+    jdbc.batchUpdate(
+        "INSERT INTO backfill_progress(signal, signal_date) VALUES (?,?) ON CONFLICT DO NOTHING",
+        dates,
+        dates.size(),
+        (ps, d) -> {
+          ps.setString(1, signal);
+          ps.setDate(2, Date.valueOf(d));
+        });
+  }
+}
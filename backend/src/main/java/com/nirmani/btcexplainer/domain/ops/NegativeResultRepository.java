@@ -0,0 +1,51 @@
+package com.nirmani.btcexplainer.domain.ops;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class NegativeResultRepository {
+  private final JdbcTemplate jdbc;
+
+  public NegativeResultRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public record Entry(String provider, LocalDate date, String query, Instant retryAfter) {}
+
+  public List<Entry> findActive(Instant now) {
+    return jdbc.query(
+        "SELECT provider, lookup_date, query, retry_after FROM provider_negative_cache WHERE retry_after > ?",
+        (rs, i) -> new Entry(
+            rs.getString(1),
+            rs.getDate(2).toLocalDate(),
+            rs.getString(3),
+            rs.getTimestamp(4).toInstant()),
+        Timestamp.from(now));
+  }
+
+  public void upsert(Entry e) {
+    jdbc.update("""
+        INSERT INTO provider_negative_cache(provider, lookup_date, query, retry_after)
+        VALUES (?,?,?,?)
+        ON CONFLICT (provider, lookup_date, query)
+        DO UPDATE SET retry_after = EXCLUDED.retry_after, recorded_at = now()
+        """,
+        e.provider(), Date.valueOf(e.date()), e.query(), Timestamp.from(e.retryAfter()));
+  }
+
+  public void delete(String provider, LocalDate date, String query) {
+    jdbc.update("DELETE FROM provider_negative_cache WHERE provider = ? AND lookup_date = ? AND query = ?",
+        provider, Date.valueOf(date), query);
+  }
+
+  /** Removes rows whose retry-after has passed; returns how many were deleted. */
+  public int deleteExpired(Instant now) {
+    return jdbc.update("DELETE FROM provider_negative_cache WHERE retry_after <= ?", Timestamp.from(now));
+  }
+}
@@ -40,6 +40,10 @@ public class DailyCandle {
   @Column(name = "created_at", nullable = false)
   private Instant createdAt = Instant.now();
 
+  /** Last insert or update of the row; maintained by the database and the batch upsert. */
+  @Column(name = "changed_at", insertable = false, updatable = false)
+  private Instant changedAt;
+
   public Long getId() { return id; }
   public Asset getAsset() { return asset; }
   public void setAsset(Asset asset) { this.asset = asset; }
@@ -56,4 +60,5 @@ public class DailyCandle {
   public BigDecimal getVolume() { return volume; }
   public void setVolume(BigDecimal volume) { this.volume = volume; }
   public Instant getCreatedAt() { return createdAt; }
+  public Instant getChangedAt() { return changedAt; }
 }
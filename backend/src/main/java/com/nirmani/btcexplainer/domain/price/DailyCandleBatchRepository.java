@@ -0,0 +1,74 @@
+package com.nirmani.btcexplainer.domain.price;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based writes for {@code price_candles_daily}.
+ *
+ * <p>Multi-row version of {@link DailyCandleRepository#insertIfNotExists}: new dates are inserted,
+ * existing dates are only overwritten when they fall inside the mutable window
+ * ({@code candle_date >= mutableFrom}), everything older is left untouched. Every written row
+ * gets a fresh {@code changed_at}, which incremental event detection keys off.</p>
+ */
+@Repository
+public class DailyCandleBatchRepository {
+
+  /** 7 bind parameters per row; keeps statements well under the Postgres limit. */
+  private static final int ROWS_PER_STATEMENT = 2_000;
+
+  private final JdbcTemplate jdbc;
+
+  public DailyCandleBatchRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public record Row(LocalDate date, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, BigDecimal volume) {}
+
+  public record UpsertResult(int inserted, int updated) {}
+
+  /** Rows must have distinct dates. */
+  public UpsertResult upsertAll(Long assetId, List<Row> rows, LocalDate mutableFrom) {
+    int inserted = 0;
+    int updated = 0;
+    for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+      List<Row> chunk = rows.subList(from, Math.min(rows.size(), from + ROWS_PER_STATEMENT));
+      StringBuilder sql = new StringBuilder(
+          "INSERT INTO price_candles_daily (asset_id, candle_date, open, close, high, low, volume) VALUES ");
+      Object[] args = new Object[chunk.size() * 7 + 1];
+      int i = 0;
+      for (Row r : chunk) {
+        if (i > 0) sql.append(',');
+        sql.append("(?,?,?,?,?,?,?)");
+        args[i++] = assetId;
+        args[i++] = Date.valueOf(r.date());
+        args[i++] = r.open();
+        args[i++] = r.close();
+        args[i++] = r.high();
+        args[i++] = r.low();
+        args[i++] = r.volume();
+      }
+      args[i] = Date.valueOf(mutableFrom);
+      sql.append("""
+           ON CONFLICT (asset_id, candle_date)
+          DO UPDATE SET open = EXCLUDED.open, close = EXCLUDED.close,
+                        high = EXCLUDED.high, low = EXCLUDED.low, volume = EXCLUDED.volume,
+                        changed_at = now()
+          WHERE price_candles_daily.candle_date >= ?
+          RETURNING (xmax = 0) AS inserted
+          """);
+
+      // RETURNING yields one row per inserted or updated candle; xmax = 0 marks a fresh insert.
+      List<Boolean> outcome = jdbc.query(sql.toString(), (rs, n) -> rs.getBoolean(1), args);
+      for (Boolean wasInsert : outcome) {
+        if (wasInsert) inserted++;
+        else updated++;
+      }
+    }
+    return new UpsertResult(inserted, updated);
+  }
+}
@@ -1,5 +1,6 @@
 package com.nirmani.btcexplainer.domain.price;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.math.BigDecimal;
 import java.util.List;
@@ -21,6 +22,21 @@ public interface DailyCandleRepository extends JpaRepository<DailyCandle, Long>
       @Param("startDate") LocalDate startDate
   );
 
+  /** Candles from {@code startDate} that changed after {@code changedAfter} or fall on/after {@code tailFrom}. */
+  @Query("""
+      select c from DailyCandle c
+      where c.asset.id = :assetId
+        and c.candleDate >= :startDate
+        and (c.changedAt > :changedAfter or c.candleDate >= :tailFrom)
+      order by c.candleDate asc
+      """)
+  List<DailyCandle> findChangedByAssetFrom(
+      @Param("assetId") Long assetId,
+      @Param("startDate") LocalDate startDate,
+      @Param("changedAfter") Instant changedAfter,
+      @Param("tailFrom") LocalDate tailFrom
+  );
+
   // ✅ NEW: immutable insert
   @Modifying
   @Transactional
@@ -0,0 +1,49 @@
+package com.nirmani.btcexplainer.domain.signals;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Set-based writes for {@code sentiment_fng_daily}. */
+@Repository
+public class FearGreedBatchRepository {
+
+  /** Keeps each statement well below the Postgres bind-parameter limit. */
+  private static final int ROWS_PER_STATEMENT = 5_000;
+
+  private final JdbcTemplate jdbc;
+
+  public FearGreedBatchRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public record Row(LocalDate sentimentDate, int value, String classification) {}
+
+  /**
+   * Upserts all rows with multi-row {@code INSERT ... ON CONFLICT (sentiment_date) DO UPDATE}
+   * statements (a single statement for the full ~3k-day history).
+   */
+  public int upsertAll(List<Row> rows) {
+    int written = 0;
+    for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+      List<Row> chunk = rows.subList(from, Math.min(rows.size(), from + ROWS_PER_STATEMENT));
+      StringBuilder sql = new StringBuilder(
+          "INSERT INTO sentiment_fng_daily(sentiment_date, value, classification) VALUES ");
+      Object[] args = new Object[chunk.size() * 3];
+      int i = 0;
+      for (Row r : chunk) {
+        if (i > 0) sql.append(',');
+        sql.append("(?,?,?)");
+        args[i++] = Date.valueOf(r.sentimentDate());
+        args[i++] = r.value();
+        args[i++] = r.classification();
+      }
+      sql.append(" ON CONFLICT (sentiment_date) DO UPDATE"
+          + " SET value = EXCLUDED.value, classification = EXCLUDED.classification");
+      written += jdbc.update(sql.toString(), args);
+    }
+    return written;
+  }
+}
@@ -0,0 +1,43 @@
+package com.nirmani.btcexplainer.domain.signals;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based writes for {@code fx_rates_daily}; used by range ingest where saving one
+ * entity per day would cost a round trip each.
+ */
+@Repository
+public class FxRateBatchRepository {
+  private final JdbcTemplate jdbc;
+
+  public FxRateBatchRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public record Row(LocalDate rateDate, LocalDate sourceDate, BigDecimal rate) {}
+
+  /** Upserts all rows for {@code base/quote} in one JDBC batch. */
+  public void upsertAll(String base, String quote, List<Row> rows) {
+    if (rows.isEmpty()) return;
+    jdbc.batchUpdate("""
+        INSERT INTO fx_rates_daily(rate_date, source_date, base, quote, rate)
+        VALUES (?,?,?,?,?)
+        ON CONFLICT (rate_date, base, quote)
+        DO UPDATE SET source_date = EXCLUDED.source_date, rate = EXCLUDED.rate
+        """,
+        rows,
+        rows.size(),
+        (ps, r) -> {
+          ps.setDate(1, Date.valueOf(r.rateDate()));
+          ps.setDate(2, Date.valueOf(r.sourceDate()));
+          ps.setString(3, base);
+          ps.setString(4, quote);
+          ps.setBigDecimal(5, r.rate());
+        });
+  }
+}
@@ -0,0 +1,45 @@
+package com.nirmani.btcexplainer.domain.signals;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Set-based writes for {@code news_items_sample}. */
+@Repository
+public class NewsItemSampleBatchRepository {
+  private final JdbcTemplate jdbc;
+
+  public NewsItemSampleBatchRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public record Row(String title, String source, String url, Instant publishedAt) {}
+
+  /**
+   * Replace the stored headlines for {@code date}: one bulk DELETE plus one multi-row INSERT
+   * (instead of loading entities to delete them and saving each headline separately).
+   */
+  public void replaceForDate(LocalDate date, List<Row> rows) {
+    jdbc.update("DELETE FROM news_items_sample WHERE item_date = ?", Date.valueOf(date));
+    if (rows.isEmpty()) return;
+
+    StringBuilder sql = new StringBuilder(
+        "INSERT INTO news_items_sample(item_date, title, source, url, published_at) VALUES ");
+    Object[] args = new Object[rows.size() * 5];
+    int i = 0;
+    for (Row r : rows) {
+      if (i > 0) sql.append(',');
+      sql.append("(?,?,?,?,?)");
+      args[i++] = Date.valueOf(date);
+      args[i++] = r.title();
+      args[i++] = r.source();
+      args[i++] = r.url();
+      args[i++] = r.publishedAt() == null ? null : Timestamp.from(r.publishedAt());
+    }
+    jdbc.update(sql.toString(), args);
+  }
+}
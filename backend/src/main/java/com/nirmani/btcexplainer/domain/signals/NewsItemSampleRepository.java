@@ -6,5 +6,4 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface NewsItemSampleRepository extends JpaRepository<NewsItemSample, Long> {
   List<NewsItemSample> findTop20ByItemDateOrderByPublishedAtDesc(LocalDate date);
-  void deleteByItemDate(LocalDate date);
 }
@@ -0,0 +1,72 @@
+package com.nirmani.btcexplainer.service.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the served dataset (candles, events, signals), used to build HTTP validators for the
+ * read APIs without querying anything.
+ *
+ * <p>{@link com.nirmani.btcexplainer.service.jobs.DailyRefreshJob} marks the start of a refresh
+ * and bumps the version when it ends. The version starts from the boot time, so a restart
+ * invalidates validators issued by the previous process. {@link #maxAge()} is how long clients
+ * may reuse a response: until the next scheduled refresh, zero while one is running, and
+ * {@code app.http.cache.fallback-max-age-seconds} when scheduled jobs are disabled.</p>
+ */
+@Component
+public class DatasetVersion {
+
+  private final CronExpression refreshCron;
+  private final boolean jobsEnabled;
+  private final Duration fallbackMaxAge;
+
+  private volatile long version;
+  private volatile Instant modifiedAt;
+  private final AtomicInteger activeRefreshes = new AtomicInteger();
+
+  public DatasetVersion(
+      @Value("${app.jobs.daily-cron:0 15 2 * * *}") String dailyCron,
+      @Value("${app.jobs.enabled:true}") boolean jobsEnabled,
+      @Value("${app.http.cache.fallback-max-age-seconds:300}") long fallbackMaxAgeSeconds) {
+    this.refreshCron = CronExpression.parse(dailyCron);
+    this.jobsEnabled = jobsEnabled;
+    this.fallbackMaxAge = Duration.ofSeconds(Math.max(0, fallbackMaxAgeSeconds));
+    this.version = System.currentTimeMillis();
+    this.modifiedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  public long current() {
+    return version;
+  }
+
+  /** When the version last changed, at HTTP date (second) precision. */
+  public Instant lastModified() {
+    return modifiedAt;
+  }
+
+  /** Counted, so overlapping refreshes (cron and admin-triggered) each need their own {@link #bump}. */
+  public void refreshStarted() {
+    activeRefreshes.incrementAndGet();
+  }
+
+  /** New version; ends one refresh started by {@link #refreshStarted}. */
+  public synchronized void bump() {
+    version = Math.max(version + 1, System.currentTimeMillis());
+    modifiedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    activeRefreshes.updateAndGet(n -> Math.max(0, n - 1));
+  }
+
+  public Duration maxAge() {
+    if (activeRefreshes.get() > 0) return Duration.ZERO;
+    if (!jobsEnabled) return fallbackMaxAge;
+    ZonedDateTime now = ZonedDateTime.now();
+    ZonedDateTime next = refreshCron.next(now);
+    return next == null ? fallbackMaxAge : Duration.between(now, next);
+  }
+}
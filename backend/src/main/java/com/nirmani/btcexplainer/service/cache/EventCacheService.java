@@ -6,36 +6,66 @@ import com.nirmani.btcexplainer.domain.event.MarketEvent;
 import com.nirmani.btcexplainer.domain.event.MarketEventRepository;
 import com.nirmani.btcexplainer.domain.explanation.EventExplanation;
 import com.nirmani.btcexplainer.domain.explanation.EventExplanationRepository;
+import com.nirmani.btcexplainer.domain.price.DailyCandle;
+import com.nirmani.btcexplainer.domain.price.DailyCandleRepository;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+/**
+ * Read-side lookups for the list endpoints and the cache eviction run after each daily refresh.
+ * Chart and event lists are cached as serialized bodies in {@link ResponseBodyCache}, not here.
+ */
 @Service
 public class EventCacheService {
 
   private final AssetRepository assetRepo;
   private final MarketEventRepository eventRepo;
+  private final DailyCandleRepository candleRepo;
   private final EventExplanationRepository explRepo;
+  private final ExplanationResponseCache explanationResponses;
+  private final ResponseBodyCache responseBodies;
 
-  public EventCacheService(AssetRepository assetRepo, MarketEventRepository eventRepo, EventExplanationRepository explRepo) {
+  public EventCacheService(
+      AssetRepository assetRepo,
+      MarketEventRepository eventRepo,
+      DailyCandleRepository candleRepo,
+      EventExplanationRepository explRepo,
+      ExplanationResponseCache explanationResponses,
+      ResponseBodyCache responseBodies) {
     this.assetRepo = assetRepo;
     this.eventRepo = eventRepo;
+    this.candleRepo = candleRepo;
     this.explRepo = explRepo;
+    this.explanationResponses = explanationResponses;
+    this.responseBodies = responseBodies;
   }
 
-  @Cacheable("events")
   public List<MarketEvent> getLatestEvents(int limit) {
     Asset btc = assetRepo.findBySymbol("BTC").orElseThrow();
     return eventRepo.findLatestByAsset(btc.getId(), PageRequest.of(0, limit));
   }
 
+  /** BTC daily candles of the last {@code days} days (UTC), oldest first. */
+  public List<DailyCandle> getChartCandles(int days) {
+    Asset btc = assetRepo.findBySymbol("BTC").orElseThrow();
+    LocalDate start = LocalDate.now(ZoneOffset.UTC).minusDays(days);
+    return candleRepo.findByAssetFrom(btc.getId(), start);
+  }
+
   @Cacheable("explanations")
   public EventExplanation getExplanation(Long eventId) {
     return explRepo.findByEventId(eventId).orElse(null);
   }
 
-  @CacheEvict(value = {"events", "chart", "explanations"}, allEntries = true)
-  public void evictAll() {}
+  /** Also drops serialized responses: event detection may have revised a move. */
+  @CacheEvict(value = "explanations", allEntries = true)
+  public void evictAll() {
+    explanationResponses.invalidateAll();
+    responseBodies.invalidateAll();
+  }
 }
@@ -0,0 +1,68 @@
+package com.nirmani.btcexplainer.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serialized {@code ExplanationDto} JSON per event id, with its HTTP validators, served as-is by
+ * {@code GET /api/explain/{id}} (including 304s, without touching the database).
+ *
+ * <p>Entries are dropped by {@link #invalidate} whenever an explanation is written, and all at
+ * once when the daily refresh evicts the other caches. Loads go through Caffeine's per-key
+ * compute, so an invalidation racing a load waits for it and then removes the (possibly stale)
+ * result instead of being overwritten by it. Published as {@code explain_response_cache.hits}
+ * and {@code explain_response_cache.misses}.</p>
+ */
+@Service
+public class ExplanationResponseCache {
+
+  /** Response body and validators; {@code etag} is unquoted. */
+  public record Entry(byte[] json, String etag, Instant lastModified) {}
+
+  private final Cache<Long, Entry> cache;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public ExplanationResponseCache(
+      @Value("${app.explain.response-cache.max-entries:2000}") long maxEntries,
+      MeterRegistry meters) {
+    this.cache = Caffeine.newBuilder().maximumSize(Math.max(1, maxEntries)).build();
+    FunctionCounter.builder("explain_response_cache.hits", hits, AtomicLong::get).register(meters);
+    FunctionCounter.builder("explain_response_cache.misses", misses, AtomicLong::get).register(meters);
+  }
+
+  /** Cached entry, else the loader's result; a null result is returned but not cached. */
+  public Entry get(Long eventId, Function<Long, Entry> loader) {
+    Entry hit = cache.getIfPresent(eventId);
+    if (hit != null) {
+      hits.incrementAndGet();
+      return hit;
+    }
+    misses.incrementAndGet();
+    return cache.get(eventId, loader);
+  }
+
+  /** Cached entry or null; never loads. */
+  public Entry peek(Long eventId) {
+    Entry hit = cache.getIfPresent(eventId);
+    if (hit != null) hits.incrementAndGet();
+    else misses.incrementAndGet();
+    return hit;
+  }
+
+  public void invalidate(Long eventId) {
+    cache.invalidate(eventId);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+}
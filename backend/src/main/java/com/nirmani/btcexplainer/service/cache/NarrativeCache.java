@@ -0,0 +1,83 @@
+package com.nirmani.btcexplainer.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nirmani.btcexplainer.domain.explanation.NarrativeCacheRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Content-addressed cache of AI narratives: fingerprint of the normalized prompt inputs to the
+ * generated text.
+ *
+ * <p>Lookups hit Caffeine first, then the {@code ai_narrative_cache} table (write-through).
+ * Published as {@code narrative_cache.hits} (tag {@code tier=memory|db}) and
+ * {@code narrative_cache.misses}.</p>
+ */
+@Service
+public class NarrativeCache {
+
+  private final NarrativeCacheRepository repo;
+  private final Cache<String, NarrativeCacheRepository.Entry> memory;
+
+  private final AtomicLong memoryHits = new AtomicLong();
+  private final AtomicLong dbHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public NarrativeCache(
+      NarrativeCacheRepository repo,
+      @Value("${app.narrative-cache.max-entries:10000}") long maxEntries,
+      MeterRegistry meters) {
+    this.repo = repo;
+    this.memory = Caffeine.newBuilder().maximumSize(Math.max(1, maxEntries)).build();
+    FunctionCounter.builder("narrative_cache.hits", memoryHits, AtomicLong::get).tag("tier", "memory").register(meters);
+    FunctionCounter.builder("narrative_cache.hits", dbHits, AtomicLong::get).tag("tier", "db").register(meters);
+    FunctionCounter.builder("narrative_cache.misses", misses, AtomicLong::get).register(meters);
+  }
+
+  public Optional<NarrativeCacheRepository.Entry> get(String fingerprint) {
+    NarrativeCacheRepository.Entry hit = memory.getIfPresent(fingerprint);
+    if (hit != null) {
+      memoryHits.incrementAndGet();
+      return Optional.of(hit);
+    }
+    try {
+      Optional<NarrativeCacheRepository.Entry> stored = repo.find(fingerprint);
+      if (stored.isPresent()) {
+        dbHits.incrementAndGet();
+        memory.put(fingerprint, stored.get());
+        repo.touch(fingerprint);
+        return stored;
+      }
+    } catch (Exception ignore) {
+      // Cache is an optimisation; a DB hiccup just means generating again.
+    }
+    misses.incrementAndGet();
+    return Optional.empty();
+  }
+
+  public void put(NarrativeCacheRepository.Entry entry) {
+    memory.put(entry.fingerprint(), entry);
+    try {
+      repo.insert(entry);
+    } catch (Exception ignore) {}
+  }
+
+  /** Hex SHA-256 of a canonical key string. */
+  public static String fingerprint(String canonical) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(md.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.nirmani.btcexplainer.service.cache;
+
+import com.nirmani.btcexplainer.domain.ops.NegativeResultRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Remembers provider lookups that returned nothing (weekend FX, quiet GDELT days) so on-demand
+ * enrichment can skip them until a retry-after time. Only lookups the provider actually answered
+ * are recorded; errors, timeouts and breaker rejections are not, so they stay retryable.
+ *
+ * <p>Lookups hit an in-memory map only; the {@code provider_negative_cache} table is written
+ * through and reloaded on startup. Recent dates are retried sooner than historical ones, since
+ * their data may simply not be published yet. Expired rows and map entries are purged on startup
+ * and then every {@code app.negative-cache.purge-interval-ms} (hourly by default).</p>
+ */
+@Service
+public class NegativeResultCache {
+
+  private static final Logger log = LoggerFactory.getLogger(NegativeResultCache.class);
+
+  private final NegativeResultRepository repo;
+  private final Map<Key, Long> retryAfterMillis = new ConcurrentHashMap<>();
+
+  /** Dates within this many days of today count as "recent". */
+  @Value("${app.negative-cache.recent-days:2}")
+  private int recentDays;
+
+  @Value("${app.negative-cache.recent-retry-minutes:30}")
+  private long recentRetryMinutes;
+
+  @Value("${app.negative-cache.historical-retry-hours:24}")
+  private long historicalRetryHours;
+
+  public NegativeResultCache(NegativeResultRepository repo) {
+    this.repo = repo;
+  }
+
+  private record Key(String provider, LocalDate date, String query) {}
+
+  @PostConstruct
+  void load() {
+    Instant now = Instant.now();
+    purgeExpired(now);
+    for (NegativeResultRepository.Entry e : repo.findActive(now)) {
+      retryAfterMillis.put(new Key(e.provider(), e.date(), e.query()), e.retryAfter().toEpochMilli());
+    }
+  }
+
+  /** Drops entries whose retry-after has passed, in memory and in {@code provider_negative_cache}. */
+  @Scheduled(fixedDelayString = "${app.negative-cache.purge-interval-ms:3600000}", initialDelay = 3_600_000)
+  public void purge() {
+    Instant now = Instant.now();
+    long nowMillis = now.toEpochMilli();
+    retryAfterMillis.values().removeIf(until -> until <= nowMillis);
+    purgeExpired(now);
+  }
+
+  private void purgeExpired(Instant now) {
+    try {
+      int n = repo.deleteExpired(now);
+      if (n > 0) log.debug("Purged {} expired negative-cache rows", n);
+    } catch (Exception e) {
+      log.warn("Failed to purge expired negative-cache rows: {}", e.toString());
+    }
+  }
+
+  public boolean isKnownEmpty(String provider, LocalDate date, String query) {
+    Long until = retryAfterMillis.get(new Key(provider, date, query));
+    if (until == null) return false;
+    if (until > System.currentTimeMillis()) return true;
+    retryAfterMillis.remove(new Key(provider, date, query), until);
+    return false;
+  }
+
+  public void recordEmpty(String provider, LocalDate date, String query) {
+    boolean recent = !date.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(recentDays));
+    Duration wait = recent ? Duration.ofMinutes(recentRetryMinutes) : Duration.ofHours(historicalRetryHours);
+    Instant retryAfter = Instant.now().plus(wait);
+
+    retryAfterMillis.put(new Key(provider, date, query), retryAfter.toEpochMilli());
+    try {
+      repo.upsert(new NegativeResultRepository.Entry(provider, date, query, retryAfter));
+    } catch (Exception e) {
+      // The in-memory entry still short-circuits until restart.
+      log.warn("Failed to persist negative-cache entry {} {} '{}': {}", provider, date, query, e.toString());
+    }
+  }
+
+  public void clear(String provider, LocalDate date, String query) {
+    if (retryAfterMillis.remove(new Key(provider, date, query)) == null) return;
+    try {
+      repo.delete(provider, date, query);
+    } catch (Exception e) {
+      // The row expires on its own; until then a restart reloads the stale entry.
+      log.warn("Failed to delete negative-cache entry {} {} '{}': {}", provider, date, query, e.toString());
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.nirmani.btcexplainer.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Final JSON bodies of the list endpoints ({@code /api/chart}, {@code /api/events}), stored
+ * gzipped and written to the response as-is, so a hit is a copy rather than a serialization.
+ *
+ * <p>Keys are built by the controllers from their normalized parameters and the
+ * {@link DatasetVersion}, so a refresh makes old entries unreachable even if a load was in flight
+ * when {@link #invalidateAll} ran. Published as {@code response_cache.hits} and
+ * {@code response_cache.misses}.</p>
+ */
+@Service
+public class ResponseBodyCache {
+
+  /** Gzipped JSON and its uncompressed length. */
+  public record Body(byte[] gzipped, int length) {}
+
+  private final Cache<String, Body> cache;
+  private final ObjectMapper mapper;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public ResponseBodyCache(
+      ObjectMapper mapper,
+      @Value("${app.response-cache.max-entries:500}") long maxEntries,
+      MeterRegistry meters) {
+    this.mapper = mapper;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(Math.max(1, maxEntries))
+        .expireAfterWrite(Duration.ofHours(6))
+        .build();
+    FunctionCounter.builder("response_cache.hits", hits, AtomicLong::get).register(meters);
+    FunctionCounter.builder("response_cache.misses", misses, AtomicLong::get).register(meters);
+  }
+
+  /** Cached body for {@code key}, else serializes what {@code value} supplies (once per key). */
+  public Body get(String key, Supplier<?> value) {
+    Body hit = cache.getIfPresent(key);
+    if (hit != null) {
+      hits.incrementAndGet();
+      return hit;
+    }
+    misses.incrementAndGet();
+    return cache.get(key, k -> encode(value.get()));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private Body encode(Object value) {
+    try {
+      byte[] json = mapper.writeValueAsBytes(value);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+      try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+        gz.write(json);
+      }
+      return new Body(out.toByteArray(), json.length);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize response body", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
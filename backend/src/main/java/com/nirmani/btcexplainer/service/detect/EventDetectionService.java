@@ -2,12 +2,15 @@ package com.nirmani.btcexplainer.service.detect;
 
 import com.nirmani.btcexplainer.domain.asset.Asset;
 import com.nirmani.btcexplainer.domain.asset.AssetRepository;
+import com.nirmani.btcexplainer.domain.event.DetectionWatermarkRepository;
 import com.nirmani.btcexplainer.domain.event.MarketEvent;
 import com.nirmani.btcexplainer.domain.event.MarketEventRepository;
 import com.nirmani.btcexplainer.domain.price.DailyCandle;
 import com.nirmani.btcexplainer.domain.price.DailyCandleRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.*;
@@ -16,12 +19,27 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Detects big daily moves from stored candles and upserts them as {@link MarketEvent}s.
+ *
+ * <p>In {@code incremental} mode (the default, {@code app.events.detection-mode}) a run only looks
+ * at candles written since the persisted per-asset watermark, plus the mutable tail, so its cost
+ * follows new data rather than the lookback length. The first run, and any run after the
+ * thresholds or lookback change, is a full pass over the window. {@code full} mode always does the
+ * full pass. Events are only saved when their values actually change.</p>
+ */
 @Service
 public class EventDetectionService {
 
+  private static final String INCREMENTAL = "incremental";
+
+  /** Keeps IN lists for the event lookup well under the bind parameter limit. */
+  private static final int DATES_PER_QUERY = 1_000;
+
   private final AssetRepository assetRepo;
   private final DailyCandleRepository candleRepo;
   private final MarketEventRepository eventRepo;
+  private final DetectionWatermarkRepository watermarkRepo;
 
   @Value("${app.events.big-move-pct:2.0}")
   private double bigMovePct;
@@ -38,13 +56,26 @@ public class EventDetectionService {
   @Value("${app.events.mutable-days:2}")
   private int mutableDays;
 
+  /** {@code incremental} or {@code full}. */
+  @Value("${app.events.detection-mode:incremental}")
+  private String detectionMode;
+
+  /**
+   * Candles changed up to this long before the watermark are looked at again, covering writes
+   * from transactions that committed after a previous run had already read past them.
+   */
+  @Value("${app.events.watermark-overlap-minutes:10}")
+  private long watermarkOverlapMinutes;
+
   public EventDetectionService(
       AssetRepository assetRepo,
       DailyCandleRepository candleRepo,
-      MarketEventRepository eventRepo) {
+      MarketEventRepository eventRepo,
+      DetectionWatermarkRepository watermarkRepo) {
     this.assetRepo = assetRepo;
     this.candleRepo = candleRepo;
     this.eventRepo = eventRepo;
+    this.watermarkRepo = watermarkRepo;
   }
 
   @Transactional
@@ -53,15 +84,30 @@ public class EventDetectionService {
     LocalDate todayUtc = LocalDate.now(ZoneOffset.UTC);
     LocalDate startDate = todayUtc.minusDays(Math.max(1, lookbackDays));
 
-    List<DailyCandle> candles = candleRepo.findByAssetFrom(btc.getId(), startDate);
+    LocalDate mutableFrom = todayUtc.minusDays(Math.max(0, mutableDays));
 
     List<Double> thresholds = parseThresholds();
     if (thresholds.isEmpty()) return 0;
     double minThreshold = thresholds.get(thresholds.size() - 1);
 
-    Map<LocalDate, MarketEvent> existingByDate =
-        eventRepo.findByAssetFrom(btc.getId(), startDate).stream()
-            .collect(Collectors.toMap(MarketEvent::getEventDate, e -> e));
+    boolean incremental = INCREMENTAL.equalsIgnoreCase(detectionMode);
+    String config = "lookbackDays=" + lookbackDays + ";thresholds=" + thresholds;
+    Optional<DetectionWatermarkRepository.Watermark> watermark = incremental
+        ? watermarkRepo.find(btc.getId()).filter(w -> w.config().equals(config))
+        : Optional.empty();
+
+    List<DailyCandle> candles;
+    Map<LocalDate, MarketEvent> existingByDate;
+    if (watermark.isPresent()) {
+      Instant changedAfter = watermark.get().candleChangedAt()
+          .minus(Duration.ofMinutes(Math.max(0, watermarkOverlapMinutes)));
+      candles = candleRepo.findChangedByAssetFrom(btc.getId(), startDate, changedAfter, mutableFrom);
+      existingByDate = eventsOn(btc.getId(), candles.stream().map(DailyCandle::getCandleDate).toList());
+    } else {
+      candles = candleRepo.findByAssetFrom(btc.getId(), startDate);
+      existingByDate = eventRepo.findByAssetFrom(btc.getId(), startDate).stream()
+          .collect(Collectors.toMap(MarketEvent::getEventDate, e -> e));
+    }
 
     int created = 0;
     int updated = 0;
@@ -86,20 +132,30 @@ public class EventDetectionService {
       LocalDate date = c.getCandleDate();
       MarketEvent existing = existingByDate.get(date);
 
-      boolean isMutable =
-          !date.isBefore(todayUtc.minusDays(Math.max(0, mutableDays)));
+      boolean isMutable = !date.isBefore(mutableFrom);
 
       if (existing != null && !isMutable) {
         continue;
       }
 
+      String direction = pct.signum() >= 0 ? "UP" : "DOWN";
+      short severity = (short) match.severity();
+      String thresholdUsed = "abs(daily_return_pct) >= " + match.threshold();
+      if (existing != null
+          && existing.getPctChange().compareTo(pct) == 0
+          && direction.equals(existing.getDirection())
+          && existing.getSeverity() == severity
+          && thresholdUsed.equals(existing.getThresholdUsed())) {
+        continue;
+      }
+
       MarketEvent e = existing != null ? existing : new MarketEvent();
       e.setAsset(btc);
       e.setEventDate(date);
       e.setPctChange(pct);
-      e.setDirection(pct.signum() >= 0 ? "UP" : "DOWN");
-      e.setSeverity((short) match.severity());
-      e.setThresholdUsed("abs(daily_return_pct) >= " + match.threshold());
+      e.setDirection(direction);
+      e.setSeverity(severity);
+      e.setThresholdUsed(thresholdUsed);
 
       eventRepo.save(e);
 
@@ -110,9 +166,29 @@ public class EventDetectionService {
         updated++;
       }
     }
+
+    if (incremental) {
+      Instant newest = candles.stream()
+          .map(DailyCandle::getChangedAt)
+          .filter(Objects::nonNull)
+          .max(Comparator.naturalOrder())
+          .orElse(null);
+      Instant previous = watermark.map(DetectionWatermarkRepository.Watermark::candleChangedAt).orElse(null);
+      if (newest != null && previous != null && newest.isBefore(previous)) newest = previous;
+      if (newest != null) watermarkRepo.save(btc.getId(), new DetectionWatermarkRepository.Watermark(newest, config));
+    }
     return created;
   }
 
+  private Map<LocalDate, MarketEvent> eventsOn(Long assetId, List<LocalDate> dates) {
+    Map<LocalDate, MarketEvent> byDate = new HashMap<>();
+    for (int from = 0; from < dates.size(); from += DATES_PER_QUERY) {
+      List<LocalDate> chunk = dates.subList(from, Math.min(dates.size(), from + DATES_PER_QUERY));
+      for (MarketEvent e : eventRepo.findByAssetAndDates(assetId, chunk)) byDate.put(e.getEventDate(), e);
+    }
+    return byDate;
+  }
+
   private List<Double> parseThresholds() {
     String raw =
         (thresholdsCsv == null || thresholdsCsv.isBlank())
@@ -1,15 +1,17 @@
 package com.nirmani.btcexplainer.service.explain;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.nirmani.btcexplainer.client.openai.OpenAiClient;
 import com.nirmani.btcexplainer.domain.event.MarketEvent;
+import com.nirmani.btcexplainer.domain.explanation.Factor;
+import com.nirmani.btcexplainer.domain.explanation.FactorCodec;
+import com.nirmani.btcexplainer.domain.explanation.NarrativeCacheRepository;
+import com.nirmani.btcexplainer.service.cache.NarrativeCache;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,28 +25,64 @@ public class AiNarrativeService {
       String errorMessage
   ) {}
 
-  private final OpenAiClient openAi;
+  /**
+   * Version of {@link #buildPrompt}. Bump whenever the prompt text or its inputs change, so
+   * cached narratives from the old prompt are no longer reused.
+   */
+  static final int PROMPT_TEMPLATE_VERSION = 2;
 
-  private final ObjectMapper om =
-      JsonMapper.builder()
-          .addModule(new JavaTimeModule())
-          .build();
+  private final OpenAiClient openAi;
+  private final NarrativeCache narrativeCache;
+  private final HeadlineRules headlineRules;
 
-  public AiNarrativeService(OpenAiClient openAi) {
+  public AiNarrativeService(OpenAiClient openAi, NarrativeCache narrativeCache, HeadlineRules headlineRules) {
     this.openAi = openAi;
+    this.narrativeCache = narrativeCache;
+    this.headlineRules = headlineRules;
+  }
+
+  public AiNarrativeResult generate(MarketEvent e, List<Factor> factors, LocalDate start, LocalDate end) {
+    return generate(e, factors, start, end, null);
   }
 
-  public AiNarrativeResult generate(MarketEvent e, List<Map<String, Object>> factors, LocalDate start, LocalDate end) {
+  /**
+   * Same as {@link #generate(MarketEvent, List, LocalDate, LocalDate)}, but when {@code onDelta}
+   * is given the OpenAI completion is streamed and each text delta is passed on as it arrives
+   * (a cached narrative is passed on in one piece). The returned result is the final, cleaned
+   * text; on fallback it may differ from what was streamed.
+   */
+  public AiNarrativeResult generate(
+      MarketEvent e,
+      List<Factor> factors,
+      LocalDate start,
+      LocalDate end,
+      Consumer<String> onDelta
+  ) {
     // Always attempt OpenAI first; fall back to deterministic text.
     String fallback = fallbackNarrative(e, factors);
 
+    // Identical prompt inputs reuse an earlier OpenAI narrative: no tokens, no round trip.
+    String fingerprint = fingerprint(e, factors, start, end);
+    if (fingerprint != null) {
+      Optional<NarrativeCacheRepository.Entry> cached = narrativeCache.get(fingerprint);
+      if (cached.isPresent()) {
+        if (onDelta != null) onDelta.accept(cached.get().narrativeText());
+        return new AiNarrativeResult(cached.get().narrativeText(), "OPENAI", cached.get().model(), Instant.now(), null);
+      }
+    }
+
     try {
       String prompt = buildPrompt(e, factors, start, end, fallback);
-      OpenAiClient.ChatResult r = openAi.chat(prompt, 0.35);
+      OpenAiClient.ChatResult r = (onDelta == null)
+          ? openAi.chat(prompt, 0.35)
+          : openAi.chatStream(prompt, 0.35, onDelta);
       String cleaned = clean(r.content());
       if (cleaned == null || cleaned.isBlank()) {
         return new AiNarrativeResult(fallback, "FALLBACK", null, Instant.now(), "OpenAI returned empty text");
       }
+      if (fingerprint != null) {
+        narrativeCache.put(new NarrativeCacheRepository.Entry(fingerprint, PROMPT_TEMPLATE_VERSION, cleaned, r.modelUsed()));
+      }
       return new AiNarrativeResult(cleaned, "OPENAI", r.modelUsed(), Instant.now(), null);
     } catch (Exception ex) {
       // Do not fail the request; store fallback.
@@ -54,9 +92,55 @@ public class AiNarrativeService {
     }
   }
 
+  /**
+   * Stable hash of everything the prompt is built from, normalized so that cosmetic differences
+   * (factor order, headline order, decimal scale, pctChange digits beyond the two shown) map to
+   * the same key. Returns null if the inputs cannot be serialized (the call is then just not cached).
+   */
+  private String fingerprint(MarketEvent e, List<Factor> factors, LocalDate start, LocalDate end) {
+    try {
+      List<Factor> normalized = (factors == null) ? List.of() : factors.stream()
+          .filter(Objects::nonNull)
+          .map(AiNarrativeService::normalize)
+          .sorted(Comparator.comparing(Factor::name))
+          .toList();
+
+      String key = PROMPT_TEMPLATE_VERSION
+          + "|" + openAi.configuredModel()
+          + "|" + String.valueOf(e.getDirection()).toUpperCase(Locale.ROOT)
+          + "|" + e.getPctChange().setScale(2, RoundingMode.HALF_UP).abs().toPlainString()
+          + "|" + e.getEventDate()
+          + "|" + start + ".." + end
+          + "|" + FactorCodec.writeCanonical(normalized);
+      return NarrativeCache.fingerprint(key);
+    } catch (Exception ignore) {
+      return null;
+    }
+  }
+
+  private static Factor normalize(Factor f) {
+    if (f.evidence() instanceof Factor.NewsEvidence n && n.sampleHeadlines() != null) {
+      // The headline set matters, not the order the DB returned it in.
+      return new Factor(f.score(), new Factor.NewsEvidence(
+          n.articlesCount(), n.coveragePct(), n.queryTag(),
+          n.sampleHeadlines().stream().map(String::trim).distinct().sorted().toList(),
+          n.note(), n.explanation(), n.confidence()));
+    }
+    if (f.evidence() instanceof Factor.FxEvidence x) {
+      return new Factor(f.score(), new Factor.FxEvidence(
+          strip(x.eurUsdRate()), x.sourceDate(), strip(x.dayChangePct()),
+          x.status(), x.explanation(), x.confidence()));
+    }
+    return f;
+  }
+
+  private static BigDecimal strip(BigDecimal v) {
+    return v == null ? null : v.stripTrailingZeros();
+  }
+
   private String buildPrompt(
     MarketEvent e,
-    List<Map<String, Object>> factors,
+    List<Factor> factors,
     LocalDate start,
     LocalDate end,
     String fallback
@@ -66,7 +150,7 @@ public class AiNarrativeService {
 
     String factorsJson;
     try {
-      factorsJson = om.writerWithDefaultPrettyPrinter().writeValueAsString(factors);
+      factorsJson = FactorCodec.writePretty(factors);
     } catch (Exception ignore) {
       factorsJson = String.valueOf(factors);
     }
@@ -128,26 +212,21 @@ public class AiNarrativeService {
     return t;
   }
 
-  private String fallbackNarrative(MarketEvent e, List<Map<String, Object>> factors) {
+  private String fallbackNarrative(MarketEvent e, List<Factor> factors) {
     BigDecimal pct = e.getPctChange().setScale(2, RoundingMode.HALF_UP);
     String dirWord = "UP".equalsIgnoreCase(e.getDirection()) ? "rose" : "fell";
 
-    Map<String, Object> news = findFactor("News activity", factors);
-    Map<String, Object> fng = findFactor("Market sentiment (Fear & Greed)", factors);
-    Map<String, Object> fx = findFactor("FX context (EUR/USD)", factors);
+    Factor.NewsEvidence news = evidence(factors, Factor.NewsEvidence.class);
+    Factor.SentimentEvidence fng = evidence(factors, Factor.SentimentEvidence.class);
+    Factor.FxEvidence fx = evidence(factors, Factor.FxEvidence.class);
 
     StringBuilder sb = new StringBuilder();
     sb.append("Bitcoin ").append(dirWord).append(" ")
         .append(pct.abs().toPlainString()).append("% on ").append(e.getEventDate()).append(". ");
 
     // Sentiment
-    if (fng != null) {
-      Map<String, Object> ev = safeEvidence(fng);
-      Object cls = ev.get("classification");
-      Object val = ev.get("value");
-      if (cls != null && val != null) {
-        sb.append("The Fear & Greed index was in the ‘").append(cls).append("’ range (value ").append(val).append("), suggesting a cautious backdrop. ");
-      }
+    if (fng != null && fng.classification() != null && fng.value() != null) {
+      sb.append("The Fear & Greed index was in the ‘").append(fng.classification()).append("’ range (value ").append(fng.value()).append("), suggesting a cautious backdrop. ");
     }
 
     // News themes
@@ -160,12 +239,8 @@ public class AiNarrativeService {
     }
 
     // FX
-    if (fx != null) {
-      Map<String, Object> ev = safeEvidence(fx);
-      Object dayChange = ev.get("dayChangePct");
-      if (dayChange != null) {
-        sb.append("EUR/USD also moved ").append(dayChange).append("% on the day, which can slightly influence broader risk sentiment. ");
-      }
+    if (fx != null && fx.dayChangePct() != null) {
+      sb.append("EUR/USD also moved ").append(fx.dayChangePct().toPlainString()).append("% on the day, which can slightly influence broader risk sentiment. ");
     }
 
     // Confidence
@@ -174,74 +249,32 @@ public class AiNarrativeService {
     return sb.toString().replaceAll("\\s+", " ").trim();
   }
 
-  private Map<String, Object> findFactor(String name, List<Map<String, Object>> factors) {
+  private static <T extends Factor.Evidence> T evidence(List<Factor> factors, Class<T> type) {
     if (factors == null) return null;
-    for (Map<String, Object> f : factors) {
-      if (f == null) continue;
-      Object n = f.get("name");
-      if (name.equals(String.valueOf(n))) return f;
+    for (Factor f : factors) {
+      if (f != null && type.isInstance(f.evidence())) return type.cast(f.evidence());
     }
     return null;
   }
 
-  @SuppressWarnings("unchecked")
-  private Map<String, Object> safeEvidence(Map<String, Object> factor) {
-    Object ev = factor.get("evidence");
-    if (ev instanceof Map<?, ?> m) {
-      return (Map<String, Object>) m;
-    }
-    return Collections.emptyMap();
-  }
-
-  @SuppressWarnings("unchecked")
-  private List<String> extractHeadlines(Map<String, Object> newsFactor) {
-    if (newsFactor == null) return List.of();
-    Map<String, Object> ev = safeEvidence(newsFactor);
-    Object sh = ev.get("sampleHeadlines");
-    if (sh instanceof List<?> list) {
-      return list.stream().map(String::valueOf).filter(s -> !s.isBlank()).limit(8).toList();
-    }
-    return List.of();
+  private List<String> extractHeadlines(Factor.NewsEvidence news) {
+    if (news == null || news.sampleHeadlines() == null) return List.of();
+    return news.sampleHeadlines().stream().filter(s -> s != null && !s.isBlank()).limit(8).toList();
   }
 
   private String inferThemes(List<String> headlines) {
-    // Very small, deterministic theme extractor.
-    boolean hasEtf = containsAny(headlines, "etf", "etfs");
-    boolean hasLiquidations = containsAny(headlines, "liquidation", "liquidations");
-    boolean hasInstitutional = containsAny(headlines, "strategy", "microstrategy", "bernstein", "analyst", "analysts", "pads cash", "reserve");
-    boolean hasSecurity = containsAny(headlines, "quantum", "wallet", "cold wallet", "security");
-    boolean hasAltcoins = containsAny(headlines, "altcoin", "xrp", "dogecoin");
-
-    List<String> bits = new ArrayList<>();
-    if (hasInstitutional) bits.add("institutional and analyst commentary");
-    if (hasLiquidations) bits.add("derivatives and liquidation dynamics");
-    if (hasEtf) bits.add("ETF flows and broader market participation");
-    if (hasSecurity) bits.add("security and longer-term protocol concerns");
-    if (hasAltcoins) bits.add("spillover discussions across major crypto assets");
-    if (bits.isEmpty()) bits.add("general crypto market developments");
+    // Deterministic theme extractor; keywords and wording come from HeadlineRules.
+    List<String> bits = headlineRules.themesOf(headlines).stream().map(HeadlineRules.Theme::description).toList();
+    if (bits.isEmpty()) bits = List.of("general crypto market developments");
 
     if (bits.size() == 1) return bits.get(0);
     if (bits.size() == 2) return bits.get(0) + " and " + bits.get(1);
     return String.join(", ", bits.subList(0, bits.size() - 1)) + ", and " + bits.get(bits.size() - 1);
   }
 
-  private boolean containsAny(List<String> lines, String... needles) {
-    for (String line : lines) {
-      String l = line.toLowerCase(Locale.ROOT);
-      for (String n : needles) {
-        if (l.contains(n)) return true;
-      }
-    }
-    return false;
-  }
-
-  private String bestConfidenceFromFactors(List<Map<String, Object>> factors) {
+  private String bestConfidenceFromFactors(List<Factor> factors) {
     if (factors == null || factors.isEmpty()) return "LOW";
-    int total = 0;
-    for (Map<String, Object> f : factors) {
-      Object s = f.get("score");
-      if (s instanceof Number n) total += n.intValue();
-    }
+    int total = factors.stream().mapToInt(Factor::score).sum();
     return total >= 130 ? "MED" : "LOW";
   }
 }
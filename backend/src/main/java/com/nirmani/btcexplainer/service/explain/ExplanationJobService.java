@@ -0,0 +1,151 @@
+package com.nirmani.btcexplainer.service.explain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Background queue for explanation generation, so {@code /api/explain} never runs news/FX
+ * ingest and the OpenAI call on a request thread.
+ *
+ * <p>Jobs run on a small bounded pool. Waiting jobs are ordered by event date (most recent
+ * first, then FIFO), and there is at most one queued or running job per event. Finished jobs
+ * stay visible for polling for a while.</p>
+ */
+@Service
+public class ExplanationJobService {
+
+  public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+  public record JobStatus(
+      String jobId,
+      Long eventId,
+      State state,
+      Instant submittedAt,
+      Instant startedAt,
+      Instant finishedAt,
+      String error
+  ) {}
+
+  private final ExplanationService explanations;
+
+  private final Map<Long, Job> activeByEvent = new ConcurrentHashMap<>();
+  private final Cache<String, Job> jobsById = Caffeine.newBuilder()
+      .maximumSize(10_000)
+      .expireAfterWrite(Duration.ofMinutes(30))
+      .build();
+  private final AtomicLong sequence = new AtomicLong();
+
+  @Value("${app.explain.jobs.threads:2}")
+  private int threads;
+
+  @Value("${app.explain.jobs.queue-capacity:200}")
+  private int queueCapacity;
+
+  private ThreadPoolExecutor pool;
+
+  public ExplanationJobService(ExplanationService explanations) {
+    this.explanations = explanations;
+  }
+
+  @PostConstruct
+  void start() {
+    int n = Math.max(1, threads);
+    CustomizableThreadFactory tf = new CustomizableThreadFactory("explain-job-");
+    tf.setDaemon(true);
+    pool = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), tf);
+  }
+
+  @PreDestroy
+  void stop() {
+    pool.shutdownNow();
+  }
+
+  /**
+   * Queue generation for an event, or return the job already queued/running for it.
+   *
+   * @throws RejectedExecutionException if the queue is full
+   */
+  public JobStatus submit(Long eventId, LocalDate eventDate) {
+    Job existing = activeByEvent.get(eventId);
+    if (existing != null) return existing.status();
+
+    synchronized (this) {
+      existing = activeByEvent.get(eventId);
+      if (existing != null) return existing.status();
+      if (pool.getQueue().size() >= queueCapacity) {
+        throw new RejectedExecutionException("Explanation queue is full");
+      }
+      Job job = new Job(eventId, eventDate, sequence.incrementAndGet());
+      activeByEvent.put(eventId, job);
+      jobsById.put(job.id, job);
+      pool.execute(job);
+      return job.status();
+    }
+  }
+
+  public JobStatus find(String jobId) {
+    Job job = jobsById.getIfPresent(jobId);
+    return job == null ? null : job.status();
+  }
+
+  private final class Job implements Runnable, Comparable<Job> {
+    final String id = UUID.randomUUID().toString();
+    final Long eventId;
+    final LocalDate eventDate;
+    final long seq;
+    final Instant submittedAt = Instant.now();
+    volatile State state = State.QUEUED;
+    volatile Instant startedAt;
+    volatile Instant finishedAt;
+    volatile String error;
+
+    Job(Long eventId, LocalDate eventDate, long seq) {
+      this.eventId = eventId;
+      this.eventDate = eventDate;
+      this.seq = seq;
+    }
+
+    @Override
+    public void run() {
+      state = State.RUNNING;
+      startedAt = Instant.now();
+      try {
+        explanations.generateOrGet(eventId);
+        state = State.DONE;
+      } catch (Exception e) {
+        error = e.getMessage();
+        state = State.FAILED;
+      } finally {
+        finishedAt = Instant.now();
+        activeByEvent.remove(eventId, this);
+      }
+    }
+
+    /** Most recent event first; ties in submission order. */
+    @Override
+    public int compareTo(Job o) {
+      int byDate = o.eventDate.compareTo(eventDate);
+      return byDate != 0 ? byDate : Long.compare(seq, o.seq);
+    }
+
+    JobStatus status() {
+      return new JobStatus(id, eventId, state, submittedAt, startedAt, finishedAt, error);
+    }
+  }
+}
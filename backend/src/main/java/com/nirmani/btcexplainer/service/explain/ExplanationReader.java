@@ -0,0 +1,154 @@
+package com.nirmani.btcexplainer.service.explain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nirmani.btcexplainer.api.dto.ExplanationDto;
+import com.nirmani.btcexplainer.domain.explanation.ExplanationViewRepository;
+import com.nirmani.btcexplainer.service.cache.DatasetVersion;
+import com.nirmani.btcexplainer.service.cache.ExplanationResponseCache;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read path for {@code GET /api/explain/{id}} and {@code /api/explain/batch}: one projection
+ * query, serialized once, then served from {@link ExplanationResponseCache} with no database
+ * round trip.
+ *
+ * <p>Only complete explanations (with an AI narrative) are cached; a row still waiting for its
+ * backfill is re-read on each request so the caller can see when it lands. Batch reads use cached
+ * entries where present and one query for the rest; they never populate the cache.</p>
+ *
+ * <p>The ETag of an explanation combines its {@code generated_at}, {@code ai_generated_at} and the
+ * {@link DatasetVersion} (a daily refresh may revise the event's move), so it changes whenever
+ * the body can.</p>
+ */
+@Service
+public class ExplanationReader {
+
+  private final ExplanationViewRepository viewRepo;
+  private final ExplanationResponseCache cache;
+  private final DatasetVersion dataset;
+  private final ObjectWriter writer;
+
+  public ExplanationReader(
+      ExplanationViewRepository viewRepo,
+      ExplanationResponseCache cache,
+      DatasetVersion dataset,
+      ObjectMapper mapper) {
+    this.viewRepo = viewRepo;
+    this.cache = cache;
+    this.dataset = dataset;
+    this.writer = mapper.writerFor(ExplanationDto.class);
+  }
+
+  /**
+   * {@code entry} is null when no explanation is stored. {@code eventDate} is only set when the
+   * row was read (i.e. not for cache hits), which is whenever {@code entry} is null or
+   * {@code needsAiBackfill} is true.
+   */
+  public record Result(LocalDate eventDate, ExplanationResponseCache.Entry entry, boolean needsAiBackfill) {}
+
+  /** @throws NoSuchElementException if the event does not exist */
+  public Result read(Long eventId) {
+    ExplanationViewRepository.View[] loaded = new ExplanationViewRepository.View[1];
+    long[] version = new long[1];
+    ExplanationResponseCache.Entry hit = cache.get(eventId, id -> {
+      // Version first: a refresh that lands in between then re-tags rather than under-tags.
+      version[0] = dataset.current();
+      ExplanationViewRepository.View v = viewRepo.find(id).orElseThrow();
+      loaded[0] = v;
+      return v.stored() && !needsAiBackfill(v) ? entry(v, version[0]) : null;
+    });
+    if (hit != null) return new Result(null, hit, false);
+
+    ExplanationViewRepository.View v = loaded[0];
+    if (!v.stored()) return new Result(v.eventDate(), null, false);
+    return new Result(v.eventDate(), entry(v, version[0]), true);
+  }
+
+  /** One event of a batch read; {@code json} is null when no explanation is stored. */
+  public record Item(long eventId, LocalDate eventDate, byte[] json, boolean needsAiBackfill) {}
+
+  /**
+   * Explanations for many events, in the order given (duplicates and unknown ids dropped).
+   * Cache hits are taken as-is; the rest are read with a single {@code IN} query.
+   */
+  public List<Item> readAll(Collection<Long> eventIds) {
+    Set<Long> ids = new LinkedHashSet<>(eventIds);
+    Map<Long, Item> byId = new HashMap<>();
+    List<Long> misses = new ArrayList<>();
+    for (Long id : ids) {
+      ExplanationResponseCache.Entry hit = cache.peek(id);
+      if (hit != null) byId.put(id, new Item(id, null, hit.json(), false));
+      else misses.add(id);
+    }
+    for (ExplanationViewRepository.View v : viewRepo.findAll(misses)) byId.put(v.eventId(), item(v));
+
+    List<Item> out = new ArrayList<>(byId.size());
+    for (Long id : ids) {
+      Item it = byId.get(id);
+      if (it != null) out.add(it);
+    }
+    return out;
+  }
+
+  /** Explanations for events dated within [from, to], newest first, at most {@code limit}. */
+  public List<Item> readBetween(LocalDate from, LocalDate to, int limit) {
+    return viewRepo.findBetween(from, to, limit).stream().map(this::item).toList();
+  }
+
+  private Item item(ExplanationViewRepository.View v) {
+    if (!v.stored()) return new Item(v.eventId(), v.eventDate(), null, false);
+    return new Item(v.eventId(), v.eventDate(), serialize(v), needsAiBackfill(v));
+  }
+
+  private ExplanationResponseCache.Entry entry(ExplanationViewRepository.View v, long version) {
+    Instant lastModified = dataset.lastModified();
+    for (Instant t : new Instant[] {v.generatedAt(), v.aiGeneratedAt()}) {
+      if (t != null && t.isAfter(lastModified)) lastModified = t;
+    }
+    String etag = "x" + Long.toHexString(v.eventId())
+        + "-" + Long.toHexString(millis(v.generatedAt()))
+        + "-" + Long.toHexString(millis(v.aiGeneratedAt()))
+        + "-" + Long.toHexString(version);
+    return new ExplanationResponseCache.Entry(serialize(v), etag, lastModified.truncatedTo(ChronoUnit.SECONDS));
+  }
+
+  private static long millis(Instant t) {
+    return t == null ? 0L : t.toEpochMilli();
+  }
+
+  private static boolean needsAiBackfill(ExplanationViewRepository.View v) {
+    return ExplanationService.needsAiBackfill(v.aiExplanationText(), v.aiExplanationSource());
+  }
+
+  private byte[] serialize(ExplanationViewRepository.View v) {
+    try {
+      return writer.writeValueAsBytes(new ExplanationDto(
+          v.eventId(),
+          v.eventDate(),
+          v.direction(),
+          v.pctChange().setScale(2, RoundingMode.HALF_UP).toPlainString(),
+          v.confidence(),
+          v.summaryText(),
+          v.aiExplanationText(),
+          v.aiExplanationSource(),
+          v.aiModel(),
+          v.factorsJson()));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize explanation " + v.eventId(), e);
+    }
+  }
+}
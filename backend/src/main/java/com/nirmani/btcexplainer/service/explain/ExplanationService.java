@@ -1,24 +1,46 @@
 package com.nirmani.btcexplainer.service.explain;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nirmani.btcexplainer.client.gdelt.GdeltClient;
 import com.nirmani.btcexplainer.domain.event.MarketEvent;
 import com.nirmani.btcexplainer.domain.event.MarketEventRepository;
 import com.nirmani.btcexplainer.domain.explanation.EventExplanation;
 import com.nirmani.btcexplainer.domain.explanation.EventExplanationRepository;
+import com.nirmani.btcexplainer.domain.explanation.Factor;
+import com.nirmani.btcexplainer.domain.explanation.FactorCodec;
+import com.nirmani.btcexplainer.domain.ops.BackfillProgressRepository;
 import com.nirmani.btcexplainer.domain.signals.*;
+import com.nirmani.btcexplainer.service.cache.ExplanationResponseCache;
+import com.nirmani.btcexplainer.service.cache.NegativeResultCache;
 import com.nirmani.btcexplainer.service.ingest.FxIngestService;
 import com.nirmani.btcexplainer.service.ingest.NewsIngestService;
+import com.nirmani.btcexplainer.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Builds and stores the explanation for a market event.
+ *
+ * <p>Generation runs in three stages so a JDBC connection is never held across a provider call:
+ * a read-only snapshot of the event and any stored explanation, a network stage with no
+ * transaction (on-demand news/FX ingest, GDELT coverage, OpenAI), and one short write transaction
+ * that persists the result. Connection hold time is published as
+ * {@code explain.connection.hold} (per explain) and {@code explain.connection.hold.stage}
+ * (tagged {@code snapshot}, {@code signals}, {@code write}); end-to-end time as
+ * {@code explain.duration}.</p>
+ */
 @Service
 public class ExplanationService {
 
@@ -35,14 +57,22 @@ public class ExplanationService {
   private final NewsIngestService newsIngest;
   private final FxIngestService fxIngest;
   private final GdeltClient gdeltClient;
+  private final BackfillProgressRepository progressRepo;
+  private final SingleFlight singleFlight;
+  private final NegativeResultCache negativeCache;
 
   private final AiNarrativeService aiNarrativeService;
+  private final HeadlineRules headlineRules;
+  private final ExplanationResponseCache responseCache;
 
-  private final ObjectMapper om =
-      JsonMapper.builder()
-          .addModule(new JavaTimeModule())
-          .build();
+  private final TransactionTemplate readTx;
+  private final TransactionTemplate writeTx;
 
+  private final Timer holdTimer;
+  private final Timer snapshotHold;
+  private final Timer signalsHold;
+  private final Timer writeHold;
+  private final Timer durationTimer;
 
   @Value("${app.events.window-days-before:2}")
   private int daysBefore;
@@ -50,6 +80,14 @@ public class ExplanationService {
   @Value("${app.events.window-days-after:1}")
   private int daysAfter;
 
+  /** How long a request waits for another request's in-flight ingest of the same date. */
+  @Value("${app.enrich.single-flight-wait-ms:30000}")
+  private long singleFlightWaitMs;
+
+  /** How long a caller waits for a generation of the same event that is already running. */
+  @Value("${app.explain.generation-wait-ms:120000}")
+  private long generationWaitMs;
+
   public ExplanationService(
       MarketEventRepository eventRepo,
       EventExplanationRepository explRepo,
@@ -60,8 +98,15 @@ public class ExplanationService {
       WeatherExtremeRepository wxRepo,
       NewsIngestService newsIngest,
       FxIngestService fxIngest,
-      GdeltClient gdeltClient
-      ,AiNarrativeService aiNarrativeService
+      GdeltClient gdeltClient,
+      BackfillProgressRepository progressRepo,
+      SingleFlight singleFlight,
+      NegativeResultCache negativeCache,
+      AiNarrativeService aiNarrativeService,
+      HeadlineRules headlineRules,
+      ExplanationResponseCache responseCache,
+      PlatformTransactionManager txManager,
+      MeterRegistry meters
   ) {
     this.eventRepo = eventRepo;
     this.explRepo = explRepo;
@@ -73,92 +118,287 @@ public class ExplanationService {
     this.newsIngest = newsIngest;
     this.fxIngest = fxIngest;
     this.gdeltClient = gdeltClient;
+    this.progressRepo = progressRepo;
+    this.singleFlight = singleFlight;
+    this.negativeCache = negativeCache;
     this.aiNarrativeService = aiNarrativeService;
+    this.headlineRules = headlineRules;
+    this.responseCache = responseCache;
+
+    this.readTx = new TransactionTemplate(txManager);
+    this.readTx.setReadOnly(true);
+    this.writeTx = new TransactionTemplate(txManager);
+
+    this.holdTimer = Timer.builder("explain.connection.hold")
+        .description("JDBC connection hold time per explanation")
+        .register(meters);
+    this.snapshotHold = stageTimer(meters, "snapshot");
+    this.signalsHold = stageTimer(meters, "signals");
+    this.writeHold = stageTimer(meters, "write");
+    this.durationTimer = Timer.builder("explain.duration").register(meters);
+  }
+
+  private static Timer stageTimer(MeterRegistry meters, String stage) {
+    return Timer.builder("explain.connection.hold.stage").tag("stage", stage).register(meters);
+  }
+
+  /** Stored explanation for an event, if one was generated already. Never calls out. */
+  @Transactional(readOnly = true)
+  public Optional<EventExplanation> find(Long eventId) {
+    return explRepo.findByEventId(eventId);
   }
 
-  @Transactional
+  /** True when a stored explanation still lacks an AI narrative and should be backfilled. */
+  public boolean needsAiBackfill(EventExplanation ex) {
+    return needsAiBackfill(ex.getAiExplanationText(), ex.getAiExplanationSource());
+  }
+
+  static boolean needsAiBackfill(String aiText, String aiSource) {
+    return aiText == null || "NONE".equalsIgnoreCase(aiSource);
+  }
+
+  /**
+   * Return the stored explanation, generating it first if there is none. A stored row without an
+   * AI narrative gets the narrative backfilled (best-effort).
+   */
   public EventExplanation generateOrGet(Long eventId) {
-    EventExplanation existing = explRepo.findByEventId(eventId).orElse(null);
-    if (existing == null) {
-      return generate(eventId);
-    }
+    return generateOrGet(eventId, null);
+  }
 
-    // Backfill AI narrative if the row predates the feature or generation failed.
-    if (existing.getAiExplanationText() == null || "NONE".equalsIgnoreCase(existing.getAiExplanationSource())) {
-      try {
-        MarketEvent e = eventRepo.findById(eventId).orElseThrow();
-        LocalDate d = e.getEventDate();
-        LocalDate start = d.minusDays(daysBefore);
-        LocalDate end = d.plusDays(daysAfter);
+  /**
+   * As {@link #generateOrGet(Long)}, streaming the AI narrative to {@code onDelta} while it is
+   * generated. A narrative that is already stored is passed on in one piece.
+   *
+   * <p>At most one generation runs per event: background jobs and streams for the same event share
+   * it, and a caller that joins a running generation gets the narrative in one piece when it ends
+   * (or {@link SingleFlight.WaitTimeoutException} after {@code app.explain.generation-wait-ms}).</p>
+   */
+  public EventExplanation generateOrGet(Long eventId, Consumer<String> onDelta) {
+    boolean[] led = new boolean[1];
+    EventExplanation ex = singleFlight.execute("explain:" + eventId, generationWaitMs, () -> {
+      led[0] = true;
+      return generateOrGetNow(eventId, onDelta);
+    });
+    if (!led[0] && onDelta != null && ex.getAiExplanationText() != null) {
+      onDelta.accept(ex.getAiExplanationText());
+    }
+    return ex;
+  }
 
-        List<Map<String, Object>> factors;
+  private EventExplanation generateOrGetNow(Long eventId, Consumer<String> onDelta) {
+    Run run = new Run();
+    try {
+      Snapshot snap = snapshot(eventId, run);
+      if (snap.existing() == null) {
+        return generate(snap, run, onDelta);
+      }
+      if (needsAiBackfill(snap.existing())) {
         try {
-          factors = om.readValue(existing.getFactorsJson(), List.class);
-        } catch (Exception ignore) {
-          factors = List.of();
-        }
-
-        AiNarrativeService.AiNarrativeResult ai = aiNarrativeService.generate(e, factors, start, end);
-        existing.setAiExplanationText(ai.text());
-        existing.setAiExplanationSource(ai.source());
-        existing.setAiModel(ai.model());
-        existing.setAiGeneratedAt(ai.generatedAt());
-        existing.setAiErrorMessage(ai.errorMessage());
-        explRepo.save(existing);
-      } catch (Exception ignore) {}
+          return backfillAi(snap, run, onDelta);
+        } catch (Exception ignore) {}
+      }
+      if (onDelta != null && snap.existing().getAiExplanationText() != null) {
+        onDelta.accept(snap.existing().getAiExplanationText());
+      }
+      return snap.existing();
+    } finally {
+      run.finish();
     }
+  }
 
-    return existing;
+  /** Build the explanation from scratch, replacing any stored one. */
+  public EventExplanation generate(Long eventId) {
+    Run run = new Run();
+    try {
+      return generate(snapshot(eventId, run), run, null);
+    } finally {
+      run.finish();
+    }
   }
 
-  private boolean isLikelyEnglish(String text) {
-    if (text == null || text.isBlank()) return false;
+  // --- Stage 1: read snapshot ---
 
-    // Count non-ASCII characters
-    long nonAscii = text.chars().filter(c -> c > 127).count();
+  private record Snapshot(MarketEvent event, EventExplanation existing) {}
 
-    // Allow at most 10% non-ASCII characters
-    return nonAscii <= (text.length() * 0.1);
+  private Snapshot snapshot(Long eventId, Run run) {
+    return run.inTx(readTx, snapshotHold, () -> new Snapshot(
+        eventRepo.findById(eventId).orElseThrow(),
+        explRepo.findByEventId(eventId).orElse(null)
+    ));
   }
 
+  private EventExplanation backfillAi(Snapshot snap, Run run, Consumer<String> onDelta) {
+    MarketEvent e = snap.event();
+    LocalDate d = e.getEventDate();
 
-  @Transactional
-  public EventExplanation generate(Long eventId) {
-    MarketEvent e = eventRepo.findById(eventId).orElseThrow();
+    List<Factor> factors;
+    try {
+      factors = FactorCodec.read(snap.existing().getFactorsJson());
+    } catch (Exception ignore) {
+      factors = List.of();
+    }
+
+    // Network, no transaction.
+    AiNarrativeService.AiNarrativeResult ai =
+        aiNarrativeService.generate(e, factors, d.minusDays(daysBefore), d.plusDays(daysAfter), onDelta);
+
+    EventExplanation saved = run.inTx(writeTx, writeHold, () -> {
+      EventExplanation ex = explRepo.findByEventId(e.getId()).orElseThrow();
+      applyAi(ex, ai);
+      return explRepo.save(ex);
+    });
+    responseCache.invalidate(e.getId());
+    return saved;
+  }
+
+  private EventExplanation generate(Snapshot snap, Run run, Consumer<String> onDelta) {
+    MarketEvent e = snap.event();
     LocalDate d = e.getEventDate();
     LocalDate start = d.minusDays(daysBefore);
     LocalDate end = d.plusDays(daysAfter);
 
+    // --- Stage 2: network enrichment, no transaction ---
+
     // Ensure signal rows exist for this event date (important for older events).
+    // The ingest services only open a transaction for their final write.
     ensureNewsForDate(d);
     ensureFxForDate(d);
 
-    // Signals (after ensuring)
-    NewsDailyStat newsStat = newsRepo.findByStatDate(d).orElse(null);
-    int newsCount = (newsStat == null) ? 0 : newsStat.getArticleCount();
-    String newsQuery = (newsStat == null) ? null : newsStat.getQueryTag();
-    Double coveragePct = (newsStat == null) ? null : newsStat.getCoveragePct();
+    Signals sig = run.inTx(readTx, signalsHold, () -> readSignals(d));
+
+    // Backfill coverage_pct if missing and we do have a query tag; persisted in the write stage.
+    Double coveragePct = (sig.newsStat() == null) ? null : sig.newsStat().getCoveragePct();
+    Double fetchedCoverage = null;
+    if (sig.newsStat() != null && sig.newsStat().getQueryTag() != null && coveragePct == null) {
+      try {
+        fetchedCoverage = gdeltClient.fetchNewsCoveragePct(d, sig.newsStat().getQueryTag());
+      } catch (Exception ignore) {
+        // Provider unavailable: leave coverage unset so a later explain can fill it in.
+      }
+      coveragePct = fetchedCoverage;
+    }
+
+    List<Factor> factors = buildFactors(sig, coveragePct);
+
+    int totalScore = factors.stream().mapToInt(Factor::score).sum();
+    String confidence = totalScore >= 130 ? "MED" : "LOW"; // intentionally conservative
+
+    String summary = renderSummary(e, factors, start, end);
+
+    AiNarrativeService.AiNarrativeResult ai = aiNarrativeService.generate(e, factors, start, end, onDelta);
+
+    String factorsJson;
+    try {
+      factorsJson = FactorCodec.write(factors);
+    } catch (Exception err) {
+      throw new RuntimeException("Failed to serialize factors JSON", err);
+    }
+
+    // --- Stage 3: short write transaction ---
+
+    Double coverageToStore = fetchedCoverage;
+    EventExplanation saved = run.inTx(writeTx, writeHold, () -> {
+      if (coverageToStore != null) {
+        newsRepo.findByStatDate(d).ifPresent(stat -> {
+          if (stat.getCoveragePct() == null) {
+            stat.setCoveragePct(coverageToStore);
+            newsRepo.save(stat);
+          }
+        });
+      }
+
+      // Upsert: a concurrent generation for the same event may have stored a row meanwhile.
+      EventExplanation ex = explRepo.findByEventId(e.getId()).orElseGet(() -> {
+        EventExplanation fresh = new EventExplanation();
+        fresh.setEvent(eventRepo.getReferenceById(e.getId()));
+        return fresh;
+      });
+      ex.setConfidence(confidence);
+      ex.setSummaryText(summary);
+      ex.setFactorsJson(factorsJson);
+      ex.setGeneratedAt(Instant.now());
+      applyAi(ex, ai);
+      return explRepo.save(ex);
+    });
+    // After commit, so a concurrent read cannot re-cache the previous row.
+    responseCache.invalidate(e.getId());
+    return saved;
+  }
+
+  private void applyAi(EventExplanation ex, AiNarrativeService.AiNarrativeResult ai) {
+    ex.setAiExplanationText(ai.text());
+    ex.setAiExplanationSource(ai.source());
+    ex.setAiModel(ai.model());
+    ex.setAiGeneratedAt(ai.generatedAt());
+    ex.setAiErrorMessage(ai.errorMessage());
+  }
 
-    List<NewsItemSample> headlines = newsItemsRepo.findTop20ByItemDateOrderByPublishedAtDesc(d);
+  private record Signals(
+      NewsDailyStat newsStat,
+      List<NewsItemSample> headlines,
+      FearGreedDaily fng,
+      FxRateDaily fx,
+      FxRateDaily fxPrev,
+      List<WeatherExtremeDaily> wx
+  ) {}
+
+  /** All signal reads for one date on a single connection. */
+  private Signals readSignals(LocalDate d) {
+    return new Signals(
+        newsRepo.findByStatDate(d).orElse(null),
+        newsItemsRepo.findTop20ByItemDateOrderByPublishedAtDesc(d),
+        fngRepo.findBySentimentDate(d).orElse(null),
+        fxRepo.findByRateDateAndBaseAndQuote(d, "EUR", "USD").orElse(null),
+        fxRepo.findByRateDateAndBaseAndQuote(d.minusDays(1), "EUR", "USD").orElse(null),
+        wxRepo.findByWxDate(d)
+    );
+  }
 
-    // Backfill coverage_pct if missing and we do have a query tag
-    if (newsStat != null && newsQuery != null && (coveragePct == null)) {
-      double cov = gdeltClient.fetchNewsCoveragePct(d, newsQuery);
-      newsStat.setCoveragePct(cov);
-      // persist best-effort
-      try { newsRepo.save(newsStat); } catch (Exception ignore) {}
-      coveragePct = cov;
+  /** Per-explain accounting of connection hold time across the transactional stages. */
+  private final class Run {
+    private final long startedAt = System.nanoTime();
+    private long heldNanos;
+
+    <T> T inTx(TransactionTemplate tx, Timer stage, Supplier<T> work) {
+      long t0 = System.nanoTime();
+      try {
+        return tx.execute(status -> work.get());
+      } finally {
+        long held = System.nanoTime() - t0;
+        heldNanos += held;
+        stage.record(held, TimeUnit.NANOSECONDS);
+      }
     }
 
-    FearGreedDaily fng = fngRepo.findBySentimentDate(d).orElse(null);
+    void finish() {
+      holdTimer.record(heldNanos, TimeUnit.NANOSECONDS);
+      durationTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private boolean isLikelyEnglish(String text) {
+    if (text == null || text.isBlank()) return false;
+
+    // Count non-ASCII characters
+    long nonAscii = text.chars().filter(c -> c > 127).count();
+
+    // Allow at most 10% non-ASCII characters
+    return nonAscii <= (text.length() * 0.1);
+  }
 
-    FxRateDaily fx = fxRepo.findByRateDateAndBaseAndQuote(d, "EUR", "USD").orElse(null);
-    FxRateDaily fxPrev = fxRepo.findByRateDateAndBaseAndQuote(d.minusDays(1), "EUR", "USD").orElse(null);
 
-    List<WeatherExtremeDaily> wx = wxRepo.findByWxDate(d);
+  /** Factor scoring (0-100), intentionally simple. Pure: no I/O. */
+  private List<Factor> buildFactors(Signals sig, Double coveragePct) {
+    NewsDailyStat newsStat = sig.newsStat();
+    int newsCount = (newsStat == null) ? 0 : newsStat.getArticleCount();
+    String newsQuery = (newsStat == null) ? null : newsStat.getQueryTag();
+    List<NewsItemSample> headlines = sig.headlines();
+    FearGreedDaily fng = sig.fng();
+    FxRateDaily fx = sig.fx();
+    FxRateDaily fxPrev = sig.fxPrev();
+    List<WeatherExtremeDaily> wx = sig.wx();
 
-    // Factor scoring (0-100), intentionally simple.
-    List<Map<String, Object>> factors = new ArrayList<>();
+    List<Factor> factors = new ArrayList<>();
 
     // --- NEWS ---
     if (newsCount > 0 || (headlines != null && !headlines.isEmpty())) {
@@ -167,34 +407,8 @@ public class ExplanationService {
             // 1️⃣ English-only headline filter (MOST IMPORTANT)
             .filter(h -> isLikelyEnglish(h.getTitle()))
 
-            // 2️⃣ URL blocklist (keep your existing logic)
-            .filter(h -> {
-              String url = h.getUrl();
-              if (url == null) return true;
-
-              url = url.toLowerCase();
-
-              return !(
-                  url.contains(".jp/")
-                      || url.contains(".jp?")
-                      || url.contains(".kr/")
-                      || url.contains(".kr?")
-                      || url.contains(".cn/")
-                      || url.contains(".cn?")
-                      || url.contains(".ru/")
-                      || url.contains(".ru?")
-                      || url.contains(".ir/")
-                      || url.contains(".tr/")
-                      || url.contains(".br/")
-                      || url.contains("segye.com")
-                      || url.contains("asahi.com")
-                      || url.contains("yomiuri.co.jp")
-                      || url.contains("nikkei.com")
-                      || url.contains("chosun.com")
-                      || url.contains("baidu.com")
-                      || url.contains("naver.com")
-              );
-            })
+            // 2️⃣ URL blocklist (see HeadlineRules; one automaton pass per URL)
+            .filter(h -> !headlineRules.isBlockedUrl(h.getUrl()))
 
             // 3️⃣ De-duplicate & limit AFTER filtering
             .map(NewsItemSample::getTitle)
@@ -204,36 +418,25 @@ public class ExplanationService {
 
 
 
-      Map<String, Object> evidence = new LinkedHashMap<>();
-      evidence.put("articlesCount", newsCount);
-      if (coveragePct != null) evidence.put("coveragePct", coveragePct);
-      if (newsQuery != null) evidence.put("queryTag", newsQuery);
-      evidence.put("sampleHeadlines", sample);
-
       // If the count is low (or derived), be transparent
-      if (newsCount == 0 && !sample.isEmpty()) {
-        evidence.put("note", "No raw count was available, but related headlines were found; showing titles as context.");
-      }
+      String note = (newsCount == 0 && !sample.isEmpty())
+          ? "No raw count was available, but related headlines were found; showing titles as context."
+          : null;
 
-      factors.add(factor("News activity", scoreClamp(newsCount, 200), evidence));
+      factors.add(new Factor(scoreClamp(newsCount, 200),
+          new Factor.NewsEvidence(newsCount, coveragePct, newsQuery, sample, note, null, null)));
     } else {
-      factors.add(factor("News activity", 10, Map.of(
-          "articlesCount", 0,
-          "explanation",
+      factors.add(new Factor(10, new Factor.NewsEvidence(0, null, null, null, null,
           "No matching crypto headlines were found for this exact date using the current query set. " +
               "BTC can still move due to technical trading (liquidations, stops), broader risk sentiment, or macro events.",
-          "confidence", "low"
-      )));
+          "low")));
     }
 
     // --- SENTIMENT ---
     if (fng != null) {
-      factors.add(factor("Market sentiment (Fear & Greed)", 40, Map.of(
-          "value", fng.getValue(),
-          "classification", fng.getClassification()
-      )));
+      factors.add(new Factor(40, new Factor.SentimentEvidence(fng.getValue(), fng.getClassification(), null)));
     } else {
-      factors.add(factor("Market sentiment (Fear & Greed)", 0, Map.of("status", "unavailable")));
+      factors.add(new Factor(0, new Factor.SentimentEvidence(null, null, "unavailable")));
     }
 
     // --- FX ---
@@ -247,104 +450,74 @@ public class ExplanationService {
             .multiply(new BigDecimal("100"));
       }
 
-      Map<String, Object> evidence = new LinkedHashMap<>();
-      evidence.put("eurUsdRate", eurusd);
-      if (fx.getSourceDate() != null) evidence.put("sourceDate", fx.getSourceDate());
-      if (changePct != null) evidence.put("dayChangePct", changePct.setScale(4, RoundingMode.HALF_UP));
-
       int fxScore = 20;
       if (changePct != null) {
         // Score based on magnitude; >= 1% daily move is notable for FX
         fxScore = scoreClamp(changePct.abs().multiply(new BigDecimal("100")).intValue(), 200); // (abs% * 100) capped
       }
 
-      factors.add(factor("FX context (EUR/USD)", fxScore, evidence));
+      factors.add(new Factor(fxScore, new Factor.FxEvidence(
+          eurusd,
+          fx.getSourceDate(),
+          changePct == null ? null : changePct.setScale(4, RoundingMode.HALF_UP),
+          null, null, null)));
     } else {
-      factors.add(factor("FX context (EUR/USD)", 5, Map.of(
-          "status", "unavailable",
-          "explanation", "FX rate data wasn't available for this date from the provider (possibly a holiday/weekend) and couldn't be backfilled.",
-          "confidence", "low"
-      )));
+      factors.add(new Factor(5, new Factor.FxEvidence(null, null, null,
+          "unavailable",
+          "FX rate data wasn't available for this date from the provider (possibly a holiday/weekend) and couldn't be backfilled.",
+          "low")));
     }
 
     // --- WEATHER (DEMO) ---
     if (wx != null && !wx.isEmpty()) {
-      factors.add(factor("Extreme weather signals (demo)", 30, Map.of(
-          "signals", wx.stream().map(x -> Map.of(
-              "region", x.getRegionKey(),
-              "type", x.getExtremeType(),
-              "severity", x.getSeverity()
-          )).toList()
-      )));
+      factors.add(new Factor(30, new Factor.WeatherEvidence(wx.stream()
+          .map(x -> new Factor.WeatherSignal(x.getRegionKey(), x.getExtremeType(), x.getSeverity()))
+          .toList())));
     } else {
-      factors.add(factor("Extreme weather signals (demo)", 0, Map.of("signals", List.of())));
+      factors.add(new Factor(0, new Factor.WeatherEvidence(List.of())));
     }
 
-    factors.sort((a, b) -> Integer.compare((int) b.get("score"), (int) a.get("score")));
-
-    int totalScore = factors.stream().mapToInt(m -> (int) m.get("score")).sum();
-    String confidence = totalScore >= 130 ? "MED" : "LOW"; // intentionally conservative
-
-    String summary = renderSummary(e, factors, start, end);
-
-    AiNarrativeService.AiNarrativeResult ai = aiNarrativeService.generate(e, factors, start, end);
-
-    EventExplanation ex = new EventExplanation();
-    ex.setEvent(e);
-    ex.setConfidence(confidence);
-    ex.setSummaryText(summary);
-    ex.setAiExplanationText(ai.text());
-    ex.setAiExplanationSource(ai.source());
-    ex.setAiModel(ai.model());
-    ex.setAiGeneratedAt(ai.generatedAt());
-    ex.setAiErrorMessage(ai.errorMessage());
-    try {
-      ex.setFactorsJson(om.writeValueAsString(factors));
-    } catch (Exception err) {
-      throw new RuntimeException("Failed to serialize factors JSON", err);
-    }
-
-
-    explRepo.save(ex);
-    return ex;
+    factors.sort(Comparator.comparingInt(Factor::score).reversed());
+    return List.copyOf(factors);
   }
 
   private void ensureNewsForDate(LocalDate date) {
+    // Known-empty dates were already ingested (stat row written) and came back without headlines.
+    if (negativeCache.isKnownEmpty(NewsIngestService.NEGATIVE_PROVIDER, date, NewsIngestService.NEGATIVE_QUERY)) return;
     try {
       boolean missingStat = newsRepo.findByStatDate(date).isEmpty();
       boolean missingHeadlines = newsItemsRepo.findTop20ByItemDateOrderByPublishedAtDesc(date).isEmpty();
-      if (missingStat || missingHeadlines) {
-        newsIngest.ingestForDate(date);
+      // Dates a backfill already attempted are not refetched (quiet days legitimately have no headlines).
+      if ((missingStat || missingHeadlines) && !progressRepo.isDone(BackfillProgressRepository.NEWS, date)) {
+        // Concurrent explains for the same date share one fetch instead of racing on stat_date.
+        singleFlight.run("news:" + date, singleFlightWaitMs, () -> newsIngest.ingestForDate(date));
       }
     } catch (Exception ignore) {}
   }
 
   private void ensureFxForDate(LocalDate date) {
+    if (negativeCache.isKnownEmpty(FxIngestService.NEGATIVE_PROVIDER, date, FxIngestService.NEGATIVE_QUERY)) return;
     try {
-      boolean missingFx = fxRepo.findByRateDateAndBaseAndQuote(date, "EUR", "USD").isEmpty();
-      if (missingFx) {
-        fxIngest.ingestEurUsd(date);
+      // The FX factor compares against the previous day too; one range request covers both.
+      boolean missingFx = fxRepo.findByRateDateAndBaseAndQuote(date, "EUR", "USD").isEmpty()
+          || fxRepo.findByRateDateAndBaseAndQuote(date.minusDays(1), "EUR", "USD").isEmpty();
+      if (missingFx
+          && !(progressRepo.isDone(BackfillProgressRepository.FX, date)
+              && progressRepo.isDone(BackfillProgressRepository.FX, date.minusDays(1)))) {
+        singleFlight.run("fx:" + date, singleFlightWaitMs, () -> fxIngest.ingestEurUsdRange(date.minusDays(1), date));
       }
     } catch (Exception ignore) {}
   }
 
-  private Map<String, Object> factor(String name, int score, Map<String, Object> evidence) {
-    Map<String, Object> m = new LinkedHashMap<>();
-    m.put("name", name);
-    m.put("score", score);
-    m.put("evidence", evidence);
-    return m;
-  }
-
   private int scoreClamp(int value, int cap) {
     int v = Math.min(Math.max(value, 0), cap);
     return (int) Math.round((v / (double) cap) * 100.0);
   }
 
-  private String renderSummary(MarketEvent e, List<Map<String, Object>> factors, LocalDate start, LocalDate end) {
+  private String renderSummary(MarketEvent e, List<Factor> factors, LocalDate start, LocalDate end) {
     BigDecimal pct = e.getPctChange().setScale(2, RoundingMode.HALF_UP);
     String dirWord = e.getDirection().equals("UP") ? "rose" : "fell";
-    String top = factors.isEmpty() ? "No signals were available." : (String) factors.get(0).get("name");
+    String top = factors.isEmpty() ? "No signals were available." : factors.get(0).name();
 
     return "BTC " + dirWord + " " + pct.abs() + "% on " + e.getEventDate()
         + ". This explanation looks for signals within " + start + " to " + end
@@ -0,0 +1,98 @@
+package com.nirmani.btcexplainer.service.explain;
+
+import com.nirmani.btcexplainer.util.AhoCorasick;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Headline filtering and theme rules, compiled once into {@link AhoCorasick} automata so each
+ * URL or title is classified in one pass however many rules there are.
+ *
+ * <p>Configurable (YAML list or comma-separated):</p>
+ * <ul>
+ *   <li>{@code app.headlines.blocked-url-patterns}: substrings of URLs whose headlines are dropped
+ *   (non-English outlets / country TLDs).</li>
+ *   <li>{@code app.headlines.themes}: ordered theme keys; per theme
+ *   {@code app.headlines.theme.<key>.keywords} and {@code .description}.</li>
+ * </ul>
+ */
+@Component
+public class HeadlineRules {
+
+  public record Theme(String key, String description, List<String> keywords) {}
+
+  private static final List<String> DEFAULT_BLOCKED_URL_PATTERNS = List.of(
+      ".jp/", ".jp?", ".kr/", ".kr?", ".cn/", ".cn?", ".ru/", ".ru?",
+      ".ir/", ".tr/", ".br/",
+      "segye.com", "asahi.com", "yomiuri.co.jp", "nikkei.com", "chosun.com", "baidu.com", "naver.com"
+  );
+
+  /** Default themes, in the order they are mentioned in the fallback narrative. */
+  private static final List<Theme> DEFAULT_THEMES = List.of(
+      new Theme("institutional", "institutional and analyst commentary",
+          List.of("strategy", "microstrategy", "bernstein", "analyst", "analysts", "pads cash", "reserve")),
+      new Theme("liquidations", "derivatives and liquidation dynamics",
+          List.of("liquidation", "liquidations")),
+      new Theme("etf", "ETF flows and broader market participation",
+          List.of("etf", "etfs")),
+      new Theme("security", "security and longer-term protocol concerns",
+          List.of("quantum", "wallet", "cold wallet", "security")),
+      new Theme("altcoins", "spillover discussions across major crypto assets",
+          List.of("altcoin", "xrp", "dogecoin"))
+  );
+
+  private final AhoCorasick blockedUrls;
+  private final AhoCorasick themeMatcher;
+  private final List<Theme> themes;
+
+  public HeadlineRules(Environment env) {
+    Binder binder = Binder.get(env);
+
+    List<String> blocked = binder.bind("app.headlines.blocked-url-patterns", Bindable.listOf(String.class))
+        .orElse(DEFAULT_BLOCKED_URL_PATTERNS);
+    this.blockedUrls = AhoCorasick.builder().addAll(0, blocked).build();
+
+    Map<String, Theme> defaults = new LinkedHashMap<>();
+    DEFAULT_THEMES.forEach(t -> defaults.put(t.key(), t));
+    List<String> keys = binder.bind("app.headlines.themes", Bindable.listOf(String.class))
+        .orElse(new ArrayList<>(defaults.keySet()));
+    if (keys.size() > 64) throw new IllegalStateException("At most 64 headline themes are supported");
+
+    List<Theme> resolved = new ArrayList<>();
+    AhoCorasick.Builder tb = AhoCorasick.builder();
+    for (String key : keys) {
+      Theme d = defaults.get(key);
+      String prefix = "app.headlines.theme." + key;
+      List<String> keywords = binder.bind(prefix + ".keywords", Bindable.listOf(String.class))
+          .orElse(d == null ? List.of() : d.keywords());
+      String description = env.getProperty(prefix + ".description", d == null ? key : d.description());
+      tb.addAll(resolved.size(), keywords);
+      resolved.add(new Theme(key, description, List.copyOf(keywords)));
+    }
+    this.themes = List.copyOf(resolved);
+    this.themeMatcher = tb.build();
+  }
+
+  /** True if the URL matches a blocked pattern (case-insensitive). */
+  public boolean isBlockedUrl(String url) {
+    return blockedUrls.containsAny(url);
+  }
+
+  /** Themes mentioned by any of the headlines, in configured order. */
+  public List<Theme> themesOf(List<String> headlines) {
+    long mask = 0L;
+    for (String h : headlines) mask |= themeMatcher.match(h);
+    if (mask == 0L) return List.of();
+    List<Theme> out = new ArrayList<>();
+    for (int i = 0; i < themes.size(); i++) {
+      if ((mask & (1L << i)) != 0) out.add(themes.get(i));
+    }
+    return out;
+  }
+}
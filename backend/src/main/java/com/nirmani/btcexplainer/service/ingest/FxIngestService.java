@@ -1,22 +1,48 @@
 package com.nirmani.btcexplainer.service.ingest;
 
 import com.nirmani.btcexplainer.client.frankfurter.FxClient;
-import com.nirmani.btcexplainer.domain.signals.FxRateDaily;
-import com.nirmani.btcexplainer.domain.signals.FxRateRepository;
+import com.nirmani.btcexplainer.domain.signals.FxRateBatchRepository;
+import com.nirmani.btcexplainer.service.cache.NegativeResultCache;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class FxIngestService {
 
+  /** How far back a weekend/holiday date may borrow the last published rate. */
+  private static final int MAX_BACKFILL_DAYS = 7;
+
+  /** Negative-cache key for "no EUR/USD rate could be derived for this date". */
+  public static final String NEGATIVE_PROVIDER = "frankfurter";
+  public static final String NEGATIVE_QUERY = "EUR/USD";
+
   private final FxClient client;
-  private final FxRateRepository repo;
+  private final FxRateBatchRepository batchRepo;
+  private final NegativeResultCache negativeCache;
+  private final TransactionTemplate writeTx;
 
-  public FxIngestService(FxClient client, FxRateRepository repo) {
+  /** Max span of a single time-series request; longer ranges are split into chunks. */
+  @Value("${app.fx.range-chunk-days:90}")
+  private int chunkDays;
+
+  public FxIngestService(
+      FxClient client,
+      FxRateBatchRepository batchRepo,
+      NegativeResultCache negativeCache,
+      PlatformTransactionManager txManager) {
     this.client = client;
-    this.repo = repo;
+    this.batchRepo = batchRepo;
+    this.negativeCache = negativeCache;
+    this.writeTx = new TransactionTemplate(txManager);
   }
 
   /**
@@ -26,34 +52,50 @@ public class FxIngestService {
    * <p>We store the fetched rate for the requested date, and also keep the actual source date
    * in {@code source_date} for transparency.</p>
    */
-  @Transactional
   public void ingestEurUsd(LocalDate date) {
-    LocalDate sourceDate = date;
-    BigDecimal rate = client.fetchEurUsd(date);
-
-    if (rate == null) {
-      for (int i = 1; i <= 7; i++) {
-        LocalDate d = date.minusDays(i);
-        BigDecimal r = client.fetchEurUsd(d);
-        if (r != null) {
-          rate = r;
-          sourceDate = d;
-          break;
-        }
-      }
-    }
+    ingestEurUsdRange(date, date);
+  }
 
-    if (rate == null) return;
+  /**
+   * Ingest EUR/USD for every calendar day in {@code [start, end]} using Frankfurter's
+   * time-series endpoint, so a range costs one request per {@code app.fx.range-chunk-days}
+   * instead of up to eight per day.
+   *
+   * <p>Gaps are filled locally with the same rule as {@link #ingestEurUsd}: the nearest previous
+   * published rate within 7 days, recorded in {@code source_date}. All rows are upserted in one
+   * batch. Returns the days written; days with no usable rate are left out.</p>
+   *
+   * <p>If any chunk fails, the provider error is thrown and nothing is written: a day must never
+   * borrow a stale rate from an earlier chunk just because its own chunk was not fetched. The
+   * provider calls run without a connection; only the batch upsert runs in a transaction.</p>
+   */
+  public List<LocalDate> ingestEurUsdRange(LocalDate start, LocalDate end) {
+    if (end.isBefore(start)) return List.of();
 
-    FxRateDaily row =
-        repo.findByRateDateAndBaseAndQuote(date, "EUR", "USD").orElseGet(FxRateDaily::new);
+    // Reach back far enough that the first days of the range can borrow an earlier rate.
+    NavigableMap<LocalDate, BigDecimal> published = new TreeMap<>();
+    LocalDate chunkStart = start.minusDays(MAX_BACKFILL_DAYS);
+    int span = Math.max(1, chunkDays);
+    while (!chunkStart.isAfter(end)) {
+      LocalDate chunkEnd = chunkStart.plusDays(span - 1L);
+      if (chunkEnd.isAfter(end)) chunkEnd = end;
+      published.putAll(client.fetchEurUsdRange(chunkStart, chunkEnd));
+      chunkStart = chunkEnd.plusDays(1);
+    }
 
-    row.setRateDate(date);
-    row.setSourceDate(sourceDate);
-    row.setBase("EUR");
-    row.setQuote("USD");
-    row.setRate(rate);
+    List<FxRateBatchRepository.Row> rows = new ArrayList<>();
+    for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+      Map.Entry<LocalDate, BigDecimal> src = published.floorEntry(d);
+      if (src == null || src.getKey().isBefore(d.minusDays(MAX_BACKFILL_DAYS))) {
+        // Every chunk answered (a failure would have thrown above), so this is a real gap.
+        negativeCache.recordEmpty(NEGATIVE_PROVIDER, d, NEGATIVE_QUERY);
+        continue;
+      }
+      negativeCache.clear(NEGATIVE_PROVIDER, d, NEGATIVE_QUERY);
+      rows.add(new FxRateBatchRepository.Row(d, src.getKey(), src.getValue()));
+    }
 
-    repo.save(row);
+    writeTx.executeWithoutResult(tx -> batchRepo.upsertAll("EUR", "USD", rows));
+    return rows.stream().map(FxRateBatchRepository.Row::rateDate).toList();
   }
 }
@@ -3,13 +3,20 @@ package com.nirmani.btcexplainer.service.ingest;
 import com.nirmani.btcexplainer.client.gdelt.GdeltClient;
 import com.nirmani.btcexplainer.domain.signals.NewsDailyStat;
 import com.nirmani.btcexplainer.domain.signals.NewsDailyStatRepository;
-import com.nirmani.btcexplainer.domain.signals.NewsItemSample;
-import com.nirmani.btcexplainer.domain.signals.NewsItemSampleRepository;
+import com.nirmani.btcexplainer.domain.signals.NewsItemSampleBatchRepository;
+import com.nirmani.btcexplainer.service.cache.NegativeResultCache;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class NewsIngestService {
@@ -20,6 +27,20 @@ public class NewsIngestService {
    */
   private static final String PRIMARY_QUERY = "(bitcoin OR btc OR cryptocurrency OR crypto)";
 
+  /** Negative-cache key for "no headlines for any query on this date". */
+  public static final String NEGATIVE_PROVIDER = "gdelt";
+  public static final String NEGATIVE_QUERY = PRIMARY_QUERY;
+
+  /** What {@link #ingestForDate} got from GDELT. */
+  public enum Outcome {
+    /** Every lookup answered and headlines were stored. */
+    FOUND,
+    /** Every lookup answered, but no headlines exist for the date. */
+    EMPTY,
+    /** The count or the headline lookups failed; what was stored is partial. */
+    FAILED
+  }
+
   private static final List<String> FALLBACK_QUERIES = List.of(
       "(bitcoin OR btc)",
       "(cryptocurrency OR crypto)",
@@ -29,12 +50,32 @@ public class NewsIngestService {
 
   private final GdeltClient gdelt;
   private final NewsDailyStatRepository statRepo;
-  private final NewsItemSampleRepository itemRepo;
+  private final NewsItemSampleBatchRepository itemBatchRepo;
+  private final ExecutorService gdeltExecutor;
+  private final NegativeResultCache negativeCache;
+  private final TransactionTemplate writeTx;
 
-  public NewsIngestService(GdeltClient gdelt, NewsDailyStatRepository statRepo, NewsItemSampleRepository itemRepo) {
+  /** When true, all GDELT lookups for a date are issued in parallel (see {@link #fetchConcurrently}). */
+  @Value("${app.news.concurrent:true}")
+  private boolean concurrent;
+
+  /** Upper bound for the whole per-date fan-out; slower lookups are treated as empty. */
+  @Value("${app.news.deadline-ms:20000}")
+  private long deadlineMs;
+
+  public NewsIngestService(
+      GdeltClient gdelt,
+      NewsDailyStatRepository statRepo,
+      NewsItemSampleBatchRepository itemBatchRepo,
+      @Qualifier("gdeltExecutor") ExecutorService gdeltExecutor,
+      NegativeResultCache negativeCache,
+      PlatformTransactionManager txManager) {
     this.gdelt = gdelt;
     this.statRepo = statRepo;
-    this.itemRepo = itemRepo;
+    this.itemBatchRepo = itemBatchRepo;
+    this.gdeltExecutor = gdeltExecutor;
+    this.negativeCache = negativeCache;
+    this.writeTx = new TransactionTemplate(txManager);
   }
 
   /**
@@ -44,52 +85,149 @@ public class NewsIngestService {
    * <ul>
    *   <li>Counts are fetched via TimelineVolRaw (raw article counts).</li>
    *   <li>Headlines use ArtList and may be empty for some queries; we retry with fallbacks.</li>
+   *   <li>GDELT is queried outside any transaction; only the final stat + headline writes share
+   *   one short transaction, so a slow provider never holds a pooled connection.</li>
+   *   <li>A lookup that failed (error, breaker open, deadline) never overwrites stored data: a
+   *   failed count keeps the stored count, and stored headlines are only replaced when a
+   *   headline query actually answered.</li>
    * </ul>
    */
-  @Transactional
-  public void ingestForDate(LocalDate date) {
-    // Count using the primary query (raw article count)
-    int count = gdelt.fetchNewsCount(date, PRIMARY_QUERY);
-
-    // Fetch headlines using a query strategy:
-    // 1) primary query
-    // 2) fallback queries until we get something
-    List<GdeltClient.NewsItem> top = new ArrayList<>();
-    String usedQuery = PRIMARY_QUERY;
+  public Outcome ingestForDate(LocalDate date) {
+    NewsFetch fetch = concurrent ? fetchConcurrently(date) : fetchSequentially(date);
+    List<GdeltClient.NewsItem> top = fetch.headlines();
+    boolean replaceHeadlines = !top.isEmpty() || !fetch.headlinesFailed();
+
+    // Store sample headlines for human-readable context
+    List<NewsItemSampleBatchRepository.Row> items = new ArrayList<>();
+    for (GdeltClient.NewsItem n : top) {
+      if (n.title() == null || n.title().isBlank()) continue;
+      items.add(new NewsItemSampleBatchRepository.Row(n.title(), n.source(), n.url(), n.publishedAt()));
+    }
 
-    top = gdelt.fetchTopArticles(date, PRIMARY_QUERY, 20);
-    if (top.isEmpty()) {
-      for (String q : FALLBACK_QUERIES) {
-        top = gdelt.fetchTopArticles(date, q, 20);
-        if (!top.isEmpty()) {
-          usedQuery = q;
-          break;
-        }
+    writeTx.executeWithoutResult(tx -> {
+      NewsDailyStat stat = statRepo.findByStatDate(date).orElseGet(NewsDailyStat::new);
+      int count = fetch.count() != null ? fetch.count() : stat.getArticleCount();
+      stat.setStatDate(date);
+      if (replaceHeadlines || stat.getQueryTag() == null) stat.setQueryTag(fetch.usedQuery());
+      // If we found titles but the raw count is zero, use a conservative effective count
+      // so that UI doesn't show an all-zero "News activity".
+      stat.setArticleCount(Math.max(count, top.size()));
+      if (fetch.coveragePct() != null) stat.setCoveragePct(fetch.coveragePct());
+      statRepo.save(stat);
+      if (replaceHeadlines) itemBatchRepo.replaceForDate(date, items);
+    });
+
+    // Only an answered "nothing" is known-empty; a failed lookup must stay retryable.
+    if (!items.isEmpty()) negativeCache.clear(NEGATIVE_PROVIDER, date, NEGATIVE_QUERY);
+    else if (!fetch.headlinesFailed()) negativeCache.recordEmpty(NEGATIVE_PROVIDER, date, NEGATIVE_QUERY);
+
+    if (fetch.count() == null || (items.isEmpty() && fetch.headlinesFailed())) return Outcome.FAILED;
+    return items.isEmpty() ? Outcome.EMPTY : Outcome.FOUND;
+  }
+
+  /**
+   * Original strategy: count first, then the primary headline query, then fallbacks one by one
+   * until something comes back. Coverage is left for {@code ExplanationService} to backfill.
+   */
+  private NewsFetch fetchSequentially(LocalDate date) {
+    Integer count = attempt(() -> gdelt.fetchNewsCount(date, PRIMARY_QUERY));
+
+    List<String> queries = new ArrayList<>();
+    queries.add(PRIMARY_QUERY);
+    queries.addAll(FALLBACK_QUERIES);
+
+    List<GdeltClient.NewsItem> top = List.of();
+    String usedQuery = PRIMARY_QUERY;
+    boolean headlinesFailed = false;
+    for (String q : queries) {
+      List<GdeltClient.NewsItem> r = attempt(() -> gdelt.fetchTopArticles(date, q, 20));
+      if (r == null) {
+        headlinesFailed = true;
+      } else if (!r.isEmpty()) {
+        top = r;
+        usedQuery = q;
+        break;
       }
     }
+    return new NewsFetch(count, null, usedQuery, top, headlinesFailed);
+  }
 
-    // If we found titles but the raw count is zero, use a conservative effective count
-    // so that UI doesn't show an all-zero "News activity".
-    int effectiveCount = Math.max(count, top.size());
+  /**
+   * Fan-out strategy: count, coverage and every candidate headline query are issued at once, so a
+   * cold date costs roughly one GDELT round trip instead of five or six.
+   *
+   * <p>Headline results are still consumed in priority order (primary first, then fallbacks), so
+   * the chosen query is the same one the sequential strategy would pick. Anything not finished by
+   * the per-date deadline counts as failed.</p>
+   */
+  private NewsFetch fetchConcurrently(LocalDate date) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(1, deadlineMs));
 
-    NewsDailyStat stat = statRepo.findByStatDate(date).orElseGet(NewsDailyStat::new);
-    stat.setStatDate(date);
-    stat.setQueryTag(usedQuery);
-    stat.setArticleCount(effectiveCount);
-    statRepo.save(stat);
+    CompletableFuture<Integer> countF =
+        CompletableFuture.supplyAsync(() -> gdelt.fetchNewsCount(date, PRIMARY_QUERY), gdeltExecutor);
+    CompletableFuture<Double> coverageF =
+        CompletableFuture.supplyAsync(() -> gdelt.fetchNewsCoveragePct(date, PRIMARY_QUERY), gdeltExecutor);
 
-    // Store sample headlines for human-readable context
-    itemRepo.deleteByItemDate(date);
-    for (GdeltClient.NewsItem n : top) {
-      if (n.title() == null || n.title().isBlank()) continue;
+    List<String> queries = new ArrayList<>();
+    queries.add(PRIMARY_QUERY);
+    queries.addAll(FALLBACK_QUERIES);
+
+    List<CompletableFuture<List<GdeltClient.NewsItem>>> headlineFs = new ArrayList<>();
+    for (String q : queries) {
+      headlineFs.add(CompletableFuture.supplyAsync(() -> gdelt.fetchTopArticles(date, q, 20), gdeltExecutor));
+    }
+
+    List<GdeltClient.NewsItem> top = List.of();
+    String usedQuery = PRIMARY_QUERY;
+    boolean headlinesFailed = false;
+    for (int i = 0; i < queries.size(); i++) {
+      List<GdeltClient.NewsItem> r = await(headlineFs.get(i), deadline);
+      if (r == null) {
+        headlinesFailed = true;
+      } else if (!r.isEmpty()) {
+        top = r;
+        usedQuery = queries.get(i);
+        break;
+      }
+    }
+    headlineFs.forEach(f -> f.cancel(false));
+
+    Integer count = await(countF, deadline);
+    Double coveragePct = await(coverageF, deadline);
+    return new NewsFetch(count, coveragePct, usedQuery, top, headlinesFailed);
+  }
+
+  /** The lookup's result, or null if it failed. */
+  private static <T> T attempt(Supplier<T> lookup) {
+    try {
+      return lookup.get();
+    } catch (Exception e) {
+      return null;
+    }
+  }
 
-      NewsItemSample item = new NewsItemSample();
-      item.setItemDate(date);
-      item.setTitle(n.title());
-      item.setSource(n.source());
-      item.setUrl(n.url());
-      item.setPublishedAt(n.publishedAt());
-      itemRepo.save(item);
+  /** The lookup's result, or null if it failed or missed the deadline. */
+  private static <T> T await(CompletableFuture<T> f, long deadlineNanos) {
+    try {
+      long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+      return f.get(remaining, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (Exception e) {
+      return null;
     }
   }
+
+  /**
+   * {@code count} and {@code coveragePct} are null when their lookup failed;
+   * {@code headlinesFailed} is set when a headline query ahead of (or instead of) the chosen one
+   * failed, i.e. an empty {@code headlines} does not prove the day had none.
+   */
+  private record NewsFetch(
+      Integer count,
+      Double coveragePct,
+      String usedQuery,
+      List<GdeltClient.NewsItem> headlines,
+      boolean headlinesFailed) {}
 }
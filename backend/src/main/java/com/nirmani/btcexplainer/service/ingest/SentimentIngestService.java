@@ -2,6 +2,11 @@ package com.nirmani.btcexplainer.service.ingest;
 
 import com.nirmani.btcexplainer.client.alternative.FearGreedClient;
 import com.nirmani.btcexplainer.domain.signals.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,10 +15,12 @@ public class SentimentIngestService {
 
   private final FearGreedClient client;
   private final FearGreedRepository repo;
+  private final FearGreedBatchRepository batchRepo;
 
-  public SentimentIngestService(FearGreedClient client, FearGreedRepository repo) {
+  public SentimentIngestService(FearGreedClient client, FearGreedRepository repo, FearGreedBatchRepository batchRepo) {
     this.client = client;
     this.repo = repo;
+    this.batchRepo = batchRepo;
   }
 
   @Transactional
@@ -27,4 +34,21 @@ public class SentimentIngestService {
     d.setClassification(p.classification());
     repo.save(d);
   }
+
+  /**
+   * Store the last {@code limit} daily values in one request and one batched upsert;
+   * {@code limit=0} pulls the full alternative.me history. Returns the dates written; provider
+   * errors propagate.
+   */
+  @Transactional
+  public Set<LocalDate> ingestHistory(int limit) {
+    // The feed is newest-first; keep the first value seen per date so one statement
+    // never touches the same row twice.
+    Map<LocalDate, FearGreedBatchRepository.Row> byDate = new LinkedHashMap<>();
+    for (FearGreedClient.FngPoint p : client.fetchHistory(limit)) {
+      byDate.putIfAbsent(p.date(), new FearGreedBatchRepository.Row(p.date(), p.value(), p.classification()));
+    }
+    if (!byDate.isEmpty()) batchRepo.upsertAll(new ArrayList<>(byDate.values()));
+    return byDate.keySet();
+  }
 }
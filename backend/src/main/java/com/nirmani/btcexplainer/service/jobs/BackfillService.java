@@ -0,0 +1,267 @@
+package com.nirmani.btcexplainer.service.jobs;
+
+import com.nirmani.btcexplainer.domain.event.MarketEventRepository;
+import com.nirmani.btcexplainer.domain.ops.BackfillProgressRepository;
+import com.nirmani.btcexplainer.service.ingest.*;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Admin-triggered historical backfill of all signals (news, FX, Fear &amp; Greed, weather),
+ * so that {@code /api/explain} never has to fetch them on demand.
+ *
+ * <p>Runs in the background, one backfill at a time. Each (signal, date) is recorded in
+ * {@code backfill_progress} once its data is actually stored, so a restarted backfill skips
+ * finished work. Provider errors count as failed and leave the date unmarked, so it is retried by
+ * the next backfill and by on-demand enrichment. Per-date providers run with their own bounded
+ * concurrency.</p>
+ */
+@Service
+public class BackfillService {
+
+  private static final Logger log = LoggerFactory.getLogger(BackfillService.class);
+
+  private final MarketEventRepository eventRepo;
+  private final BackfillProgressRepository progressRepo;
+  private final NewsIngestService newsIngest;
+  private final FxIngestService fxIngest;
+  private final SentimentIngestService sentimentIngest;
+  private final WeatherIngestService wxIngest;
+
+  private final ExecutorService runner =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("backfill-"));
+
+  @Value("${app.backfill.concurrency.gdelt:2}")
+  private int gdeltConcurrency;
+
+  @Value("${app.backfill.concurrency.open-meteo:4}")
+  private int weatherConcurrency;
+
+  @Value("${app.backfill.max-days:3660}")
+  private int maxDays;
+
+  private volatile Progress current;
+
+  public BackfillService(
+      MarketEventRepository eventRepo,
+      BackfillProgressRepository progressRepo,
+      NewsIngestService newsIngest,
+      FxIngestService fxIngest,
+      SentimentIngestService sentimentIngest,
+      WeatherIngestService wxIngest
+  ) {
+    this.eventRepo = eventRepo;
+    this.progressRepo = progressRepo;
+    this.newsIngest = newsIngest;
+    this.fxIngest = fxIngest;
+    this.sentimentIngest = sentimentIngest;
+    this.wxIngest = wxIngest;
+  }
+
+  public record Status(
+      String state,
+      LocalDate from,
+      LocalDate to,
+      int totalDates,
+      int newsDone,
+      int newsFailed,
+      int fxDays,
+      boolean fxFailed,
+      int sentimentDays,
+      boolean sentimentFailed,
+      int weatherDone,
+      Instant startedAt,
+      Instant finishedAt,
+      String error
+  ) {}
+
+  /**
+   * Start a backfill for every calendar day in {@code [from, to]}, or for all
+   * {@code market_events} dates when both bounds are null. If one is already running,
+   * its status is returned instead.
+   *
+   * @throws IllegalArgumentException if only one bound is given, {@code from} is after
+   *     {@code to}, or the range spans more than {@code app.backfill.max-days} days
+   */
+  public synchronized Status start(LocalDate from, LocalDate to) {
+    if ((from == null) != (to == null)) {
+      throw new IllegalArgumentException("from and to must be given together");
+    }
+    if (from != null && from.isAfter(to)) {
+      throw new IllegalArgumentException("from must not be after to");
+    }
+    if (from != null && ChronoUnit.DAYS.between(from, to) + 1 > maxDays) {
+      throw new IllegalArgumentException("range exceeds " + maxDays + " days");
+    }
+    if (current != null && current.finishedAt == null) return current.snapshot();
+
+    List<LocalDate> dates = new ArrayList<>();
+    if (from == null) {
+      dates.addAll(eventRepo.findAllEventDates());
+    } else {
+      for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) dates.add(d);
+    }
+
+    Progress p = new Progress(dates);
+    current = p;
+    if (dates.isEmpty()) {
+      p.finish(null);
+    } else {
+      runner.submit(() -> run(p));
+    }
+    return p.snapshot();
+  }
+
+  public Status status() {
+    Progress p = current;
+    return p == null ? new Progress(List.of()).snapshot() : p.snapshot();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    runner.shutdownNow();
+  }
+
+  private void run(Progress p) {
+    log.info("Backfill started: {} dates ({} .. {})", p.dates.size(), p.from, p.to);
+    try {
+      // FX: one time-series range covers everything, including the day before the first date.
+      LocalDate fxFrom = p.from.minusDays(1);
+      if (progressRepo.doneBetween(BackfillProgressRepository.FX, fxFrom, p.to).size()
+          < ChronoUnit.DAYS.between(fxFrom, p.to) + 1) {
+        try {
+          List<LocalDate> written = fxIngest.ingestEurUsdRange(fxFrom, p.to);
+          progressRepo.markDone(BackfillProgressRepository.FX, written);
+          p.fxDays.set(written.size());
+        } catch (Exception e) {
+          p.fxFailed = true;
+          log.warn("Backfill FX failed: {}", e.toString());
+        }
+      }
+
+      // Sentiment: the full index history is a single request, whatever the range.
+      if (!progressRepo.doneBetween(BackfillProgressRepository.SENTIMENT, p.from, p.to).containsAll(p.dates)) {
+        try {
+          Set<LocalDate> written = sentimentIngest.ingestHistory(0);
+          progressRepo.markDone(BackfillProgressRepository.SENTIMENT,
+              p.dates.stream().filter(written::contains).toList());
+          p.sentimentDays.set(written.size());
+        } catch (Exception e) {
+          p.sentimentFailed = true;
+          log.warn("Backfill sentiment failed: {}", e.toString());
+        }
+      }
+
+      perDate(p, BackfillProgressRepository.NEWS, gdeltConcurrency,
+          d -> newsIngest.ingestForDate(d) != NewsIngestService.Outcome.FAILED, p.newsDone, p.newsFailed);
+      // Weather is still a placeholder: run it, but record nothing that would hide real data later.
+      perDate(p, null, weatherConcurrency, d -> {
+        wxIngest.ingestExtremes(d);
+        return true;
+      }, p.weatherDone, new AtomicInteger());
+
+      p.finish(null);
+      log.info("Backfill done: {}", p.snapshot());
+    } catch (Exception e) {
+      p.finish(e.getMessage());
+      log.warn("Backfill failed", e);
+    }
+  }
+
+  /**
+   * Runs {@code task} for each date not yet marked done, at most {@code concurrency} at a time.
+   * A date is marked done only when {@code task} reports success; a false result or an exception
+   * counts as failed. With a null {@code signal} nothing is skipped or recorded.
+   */
+  private void perDate(
+      Progress p,
+      String signal,
+      int concurrency,
+      Predicate<LocalDate> task,
+      AtomicInteger done,
+      AtomicInteger failed
+  ) throws InterruptedException {
+    Set<LocalDate> finished = signal == null ? Set.of() : progressRepo.doneBetween(signal, p.from, p.to);
+    String name = signal == null ? "weather" : signal;
+    ExecutorService pool = Executors.newFixedThreadPool(
+        Math.max(1, concurrency), new CustomizableThreadFactory("backfill-" + name + "-"));
+    try {
+      for (LocalDate d : p.dates) {
+        if (finished.contains(d)) {
+          done.incrementAndGet();
+          continue;
+        }
+        pool.submit(() -> {
+          try {
+            if (!task.test(d)) {
+              failed.incrementAndGet();
+              return;
+            }
+            if (signal != null) progressRepo.markDone(signal, List.of(d));
+            done.incrementAndGet();
+          } catch (Exception e) {
+            failed.incrementAndGet();
+          }
+        });
+      }
+    } finally {
+      pool.shutdown();
+    }
+    while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+      log.info("Backfill {}: {}/{} dates", name, done.get(), p.dates.size());
+    }
+  }
+
+  private static final class Progress {
+    final List<LocalDate> dates;
+    final LocalDate from;
+    final LocalDate to;
+    final Instant startedAt = Instant.now();
+    final AtomicInteger newsDone = new AtomicInteger();
+    final AtomicInteger newsFailed = new AtomicInteger();
+    final AtomicInteger fxDays = new AtomicInteger();
+    final AtomicInteger sentimentDays = new AtomicInteger();
+    final AtomicInteger weatherDone = new AtomicInteger();
+    volatile boolean fxFailed;
+    volatile boolean sentimentFailed;
+    volatile Instant finishedAt;
+    volatile String error;
+
+    Progress(List<LocalDate> dates) {
+      this.dates = dates;
+      this.from = dates.isEmpty() ? null : dates.get(0);
+      this.to = dates.isEmpty() ? null : dates.get(dates.size() - 1);
+    }
+
+    void finish(String error) {
+      this.error = error;
+      this.finishedAt = Instant.now();
+    }
+
+    Status snapshot() {
+      String state = dates.isEmpty() && finishedAt == null ? "IDLE"
+          : finishedAt == null ? "RUNNING"
+          : error != null ? "FAILED"
+          : "DONE";
+      return new Status(state, from, to, dates.size(),
+          newsDone.get(), newsFailed.get(), fxDays.get(), fxFailed, sentimentDays.get(), sentimentFailed,
+          weatherDone.get(),
+          startedAt, finishedAt, error);
+    }
+  }
+}
@@ -1,8 +1,9 @@
 package com.nirmani.btcexplainer.service.jobs;
 
+import com.nirmani.btcexplainer.domain.price.DailyCandleBatchRepository;
+import com.nirmani.btcexplainer.service.cache.DatasetVersion;
 import com.nirmani.btcexplainer.service.cache.EventCacheService;
 import com.nirmani.btcexplainer.service.detect.EventDetectionService;
-import com.nirmani.btcexplainer.service.explain.ExplanationService;
 import com.nirmani.btcexplainer.service.ingest.*;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
@@ -23,8 +24,9 @@ public class DailyRefreshJob {
   private final SentimentIngestService sentimentIngest;
   private final FxIngestService fxIngest;
   private final WeatherIngestService wxIngest;
-  private final ExplanationService explainer;
+  private final ExplanationRegenerator regenerator;
   private final EventCacheService cache;
+  private final DatasetVersion dataset;
 
   @Value("${app.jobs.enabled:true}")
   private boolean enabled;
@@ -39,8 +41,9 @@ public class DailyRefreshJob {
       SentimentIngestService sentimentIngest,
       FxIngestService fxIngest,
       WeatherIngestService wxIngest,
-      ExplanationService explainer,
-      EventCacheService cache
+      ExplanationRegenerator regenerator,
+      EventCacheService cache,
+      DatasetVersion dataset
   ) {
     this.priceIngest = priceIngest;
     this.detector = detector;
@@ -48,8 +51,9 @@ public class DailyRefreshJob {
     this.sentimentIngest = sentimentIngest;
     this.fxIngest = fxIngest;
     this.wxIngest = wxIngest;
-    this.explainer = explainer;
+    this.regenerator = regenerator;
     this.cache = cache;
+    this.dataset = dataset;
   }
 
   /** Runs on startup via controller call (see AdminController) and daily by cron. */
@@ -58,24 +62,41 @@ public class DailyRefreshJob {
     if (!enabled) return;
     log.info("Daily refresh started");
 
-    int upserts = priceIngest.ingestBtcDailyOhlc();
-    int created = detector.detectBtcBigMoves();
+    // Read APIs answer with max-age=0 until the refresh is done.
+    dataset.refreshStarted();
+    try {
+      DailyCandleBatchRepository.UpsertResult candles = priceIngest.ingestBtcDailyOhlc();
+      int created = detector.detectBtcBigMoves();
 
-    // We ingest "yesterday" stats for signals to keep things stable
-    LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
-    newsIngest.ingestForDate(yesterday);
-    sentimentIngest.ingestLatest();
-    fxIngest.ingestEurUsd(yesterday);
-    wxIngest.ingestExtremes(yesterday);
+      // We ingest "yesterday" stats for signals to keep things stable
+      LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+      // Each signal is independent: a provider that is down only costs its own signal.
+      ingestSignal("news", () -> newsIngest.ingestForDate(yesterday));
+      ingestSignal("sentiment", sentimentIngest::ingestLatest);
+      ingestSignal("fx", () -> fxIngest.ingestEurUsd(yesterday));
+      ingestSignal("weather", () -> wxIngest.ingestExtremes(yesterday));
 
-    // Regenerate explanations for newest events (best-effort)
-    try {
-      cache.getLatestEvents(keepLast).forEach(ev -> {
-        try { explainer.generateOrGet(ev.getId()); } catch (Exception ignore) {}
-      });
-    } catch (Exception ignore) {}
+      // Regenerate explanations for newest events (best-effort, parallel and time-bounded)
+      try {
+        regenerator.regenerate(cache.getLatestEvents(keepLast));
+      } catch (Exception e) {
+        log.warn("Explanation regeneration failed: {}", e.toString());
+      }
 
-    cache.evictAll();
-    log.info("Daily refresh done. priceUpserts={}, eventsCreated={}", upserts, created);
+      log.info("Daily refresh done. candlesInserted={}, candlesUpdated={}, eventsCreated={}",
+          candles.inserted(), candles.updated(), created);
+    } finally {
+      // New version before evicting, so anything cached after the eviction carries it.
+      dataset.bump();
+      cache.evictAll();
+    }
+  }
+
+  private void ingestSignal(String signal, Runnable task) {
+    try {
+      task.run();
+    } catch (Exception e) {
+      log.warn("Daily {} ingest failed: {}", signal, e.toString());
+    }
   }
 }
@@ -0,0 +1,154 @@
+package com.nirmani.btcexplainer.service.jobs;
+
+import com.nirmani.btcexplainer.domain.event.MarketEvent;
+import com.nirmani.btcexplainer.domain.explanation.EventExplanation;
+import com.nirmani.btcexplainer.service.explain.ExplanationService;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Parallel explanation regeneration for the daily refresh.
+ *
+ * <p>Events are processed by {@code app.jobs.explain.concurrency} workers. Each event gets
+ * {@code app.jobs.explain.event-timeout-ms} (its worker is interrupted after that) and the whole
+ * stage {@code app.jobs.explain.stage-timeout-ms}; events not finished by then are cancelled, so
+ * the stage has a bounded wall-clock time. OpenAI pacing is left to
+ * {@link com.nirmani.btcexplainer.client.openai.OpenAiBudget}.</p>
+ */
+@Service
+public class ExplanationRegenerator {
+
+  private static final Logger log = LoggerFactory.getLogger(ExplanationRegenerator.class);
+
+  public enum Outcome { GENERATED, AI_BACKFILLED, AI_FALLBACK, UNCHANGED, FAILED, TIMED_OUT }
+
+  public record EventOutcome(Long eventId, LocalDate eventDate, Outcome outcome, long millis, String error) {}
+
+  public record Summary(
+      Instant startedAt,
+      Instant finishedAt,
+      int total,
+      Map<Outcome, Integer> counts,
+      List<EventOutcome> events
+  ) {}
+
+  private final ExplanationService explainer;
+
+  @Value("${app.jobs.explain.concurrency:4}")
+  private int concurrency;
+
+  @Value("${app.jobs.explain.event-timeout-ms:90000}")
+  private long eventTimeoutMs;
+
+  @Value("${app.jobs.explain.stage-timeout-ms:900000}")
+  private long stageTimeoutMs;
+
+  private volatile Summary last;
+
+  public ExplanationRegenerator(ExplanationService explainer) {
+    this.explainer = explainer;
+  }
+
+  /** Outcome of the most recent run, or null if none ran since startup. */
+  public Summary last() {
+    return last;
+  }
+
+  public Summary regenerate(List<MarketEvent> events) {
+    Instant startedAt = Instant.now();
+    long stageDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(1, stageTimeoutMs));
+
+    ExecutorService workers = Executors.newFixedThreadPool(
+        Math.max(1, concurrency), new CustomizableThreadFactory("explain-regen-"));
+    ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("explain-regen-watchdog-"));
+
+    List<Future<EventOutcome>> futures = new ArrayList<>();
+    for (MarketEvent ev : events) {
+      futures.add(workers.submit(() -> runOne(ev, watchdog)));
+    }
+    workers.shutdown();
+
+    List<EventOutcome> outcomes = new ArrayList<>();
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        MarketEvent ev = events.get(i);
+        Future<EventOutcome> f = futures.get(i);
+        try {
+          long remaining = Math.max(0, stageDeadline - System.nanoTime());
+          outcomes.add(f.get(remaining, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+          f.cancel(true);
+          outcomes.add(new EventOutcome(ev.getId(), ev.getEventDate(), Outcome.TIMED_OUT, 0, "stage deadline"));
+        } catch (ExecutionException e) {
+          outcomes.add(new EventOutcome(ev.getId(), ev.getEventDate(), Outcome.FAILED, 0, String.valueOf(e.getCause())));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          f.cancel(true);
+          outcomes.add(new EventOutcome(ev.getId(), ev.getEventDate(), Outcome.TIMED_OUT, 0, "interrupted"));
+        }
+      }
+    } finally {
+      workers.shutdownNow();
+      watchdog.shutdownNow();
+    }
+
+    Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+    for (EventOutcome o : outcomes) counts.merge(o.outcome(), 1, Integer::sum);
+
+    Summary summary = new Summary(startedAt, Instant.now(), events.size(), counts, List.copyOf(outcomes));
+    last = summary;
+    log.info("Explanation regeneration done in {}ms: {}",
+        summary.finishedAt().toEpochMilli() - startedAt.toEpochMilli(), counts);
+    outcomes.stream()
+        .filter(o -> o.outcome() == Outcome.FAILED || o.outcome() == Outcome.TIMED_OUT)
+        .forEach(o -> log.warn("Explanation for event {} ({}) {}: {}", o.eventId(), o.eventDate(), o.outcome(), o.error()));
+    return summary;
+  }
+
+  private EventOutcome runOne(MarketEvent ev, ScheduledExecutorService watchdog) {
+    long t0 = System.nanoTime();
+    Thread worker = Thread.currentThread();
+    ScheduledFuture<?> timer = watchdog.schedule(worker::interrupt, Math.max(1, eventTimeoutMs), TimeUnit.MILLISECONDS);
+    try {
+      EventExplanation before = explainer.find(ev.getId()).orElse(null);
+      EventExplanation after = explainer.generateOrGet(ev.getId());
+      return new EventOutcome(ev.getId(), ev.getEventDate(), classify(before, after, elapsedMs(t0)), elapsedMs(t0), null);
+    } catch (Exception e) {
+      Outcome o = elapsedMs(t0) >= eventTimeoutMs ? Outcome.TIMED_OUT : Outcome.FAILED;
+      return new EventOutcome(ev.getId(), ev.getEventDate(), o, elapsedMs(t0), e.toString());
+    } finally {
+      timer.cancel(false);
+      // The watchdog may have fired right after the work finished; don't leak the flag.
+      Thread.interrupted();
+    }
+  }
+
+  private Outcome classify(EventExplanation before, EventExplanation after, long millis) {
+    if (before == null) return Outcome.GENERATED;
+    if (!explainer.needsAiBackfill(before)) return Outcome.UNCHANGED;
+    if (millis >= eventTimeoutMs) return Outcome.TIMED_OUT;
+    return "OPENAI".equalsIgnoreCase(after.getAiExplanationSource()) ? Outcome.AI_BACKFILLED : Outcome.AI_FALLBACK;
+  }
+
+  private static long elapsedMs(long t0) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+  }
+}
@@ -0,0 +1,151 @@
+package com.nirmani.btcexplainer.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Case-insensitive multi-pattern matcher (Aho-Corasick), compiled once and safe to share.
+ *
+ * <p>Each pattern belongs to a group (0..63). {@link #match} scans the text once, folding case
+ * per character without allocating, and returns the bitmask of groups that had at least one
+ * pattern occur. Cost is linear in the text length regardless of how many patterns there are.</p>
+ *
+ * <p>The automaton is stored as a dense transition table over the characters that occur in the
+ * patterns (every other character maps to a shared "other" column), with failure links already
+ * folded in, so each input character is a single array lookup.</p>
+ */
+public final class AhoCorasick {
+
+  private final char[] classOf;     // folded char -> column (0 = not in any pattern)
+  private final int columns;
+  private final int[] next;         // state * columns + column -> state
+  private final long[] output;      // state -> groups matched when entering it
+
+  private AhoCorasick(char[] classOf, int columns, int[] next, long[] output) {
+    this.classOf = classOf;
+    this.columns = columns;
+    this.next = next;
+    this.output = output;
+  }
+
+  /** Bitmask of groups with at least one pattern contained in {@code text}; 0 for null. */
+  public long match(CharSequence text) {
+    if (text == null) return 0L;
+    long found = 0L;
+    int state = 0;
+    for (int i = 0, n = text.length(); i < n; i++) {
+      state = next[state * columns + classOf[Character.toLowerCase(text.charAt(i))]];
+      found |= output[state];
+    }
+    return found;
+  }
+
+  /** True if any pattern of any group occurs in {@code text}. */
+  public boolean containsAny(CharSequence text) {
+    if (text == null) return false;
+    int state = 0;
+    for (int i = 0, n = text.length(); i < n; i++) {
+      state = next[state * columns + classOf[Character.toLowerCase(text.charAt(i))]];
+      if (output[state] != 0L) return true;
+    }
+    return false;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static final class Builder {
+    private final List<String> patterns = new ArrayList<>();
+    private final List<Integer> groups = new ArrayList<>();
+
+    private Builder() {}
+
+    public Builder add(int group, String pattern) {
+      if (group < 0 || group > 63) throw new IllegalArgumentException("group must be 0..63: " + group);
+      if (pattern == null || pattern.isEmpty()) return this;
+      patterns.add(pattern);
+      groups.add(group);
+      return this;
+    }
+
+    public Builder addAll(int group, Iterable<String> patterns) {
+      for (String p : patterns) add(group, p);
+      return this;
+    }
+
+    public AhoCorasick build() {
+      // Column per distinct (folded) character.
+      char[] classOf = new char[Character.MAX_VALUE + 1];
+      int columns = 1;
+      for (String p : patterns) {
+        for (int i = 0; i < p.length(); i++) {
+          char c = Character.toLowerCase(p.charAt(i));
+          if (classOf[c] == 0) classOf[c] = (char) columns++;
+        }
+      }
+
+      // Trie (-1 = no edge yet).
+      List<int[]> trie = new ArrayList<>();
+      List<Long> out = new ArrayList<>();
+      trie.add(newRow(columns));
+      out.add(0L);
+      for (int k = 0; k < patterns.size(); k++) {
+        String p = patterns.get(k);
+        int s = 0;
+        for (int i = 0; i < p.length(); i++) {
+          int col = classOf[Character.toLowerCase(p.charAt(i))];
+          if (trie.get(s)[col] < 0) {
+            trie.get(s)[col] = trie.size();
+            trie.add(newRow(columns));
+            out.add(0L);
+          }
+          s = trie.get(s)[col];
+        }
+        out.set(s, out.get(s) | (1L << groups.get(k)));
+      }
+
+      // BFS: failure links folded into a full transition table, outputs merged along them.
+      int states = trie.size();
+      int[] next = new int[states * columns];
+      long[] output = new long[states];
+      int[] fail = new int[states];
+      for (int s = 0; s < states; s++) output[s] = out.get(s);
+
+      ArrayDeque<Integer> queue = new ArrayDeque<>();
+      for (int col = 0; col < columns; col++) {
+        int t = trie.get(0)[col];
+        if (t < 0) {
+          next[col] = 0;
+        } else {
+          next[col] = t;
+          fail[t] = 0;
+          queue.add(t);
+        }
+      }
+      while (!queue.isEmpty()) {
+        int s = queue.poll();
+        output[s] |= output[fail[s]];
+        for (int col = 0; col < columns; col++) {
+          int t = trie.get(s)[col];
+          if (t < 0) {
+            next[s * columns + col] = next[fail[s] * columns + col];
+          } else {
+            next[s * columns + col] = t;
+            fail[t] = next[fail[s] * columns + col];
+            queue.add(t);
+          }
+        }
+      }
+      return new AhoCorasick(classOf, columns, next, output);
+    }
+
+    private static int[] newRow(int columns) {
+      int[] row = new int[columns];
+      Arrays.fill(row, -1);
+      return row;
+    }
+  }
+}
@@ -1,33 +1,157 @@
 package com.nirmani.btcexplainer.util;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nirmani.btcexplainer.domain.ops.ApiCallLogRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Outbound JSON GET transport shared by all provider clients.
+ *
+ * <p>Each provider gets its own {@link RestTemplate} with bounded connect/read timeouts
+ * (the JDK connection underneath keeps idle sockets alive and reuses them per host).
+ * Responses are requested gzip-compressed and handed to the caller as a streaming
+ * {@link JsonParser}, so bodies are never buffered into a String.</p>
+ *
+ * <p>Read timeouts can be tuned per provider with
+ * {@code app.http.providers.<provider>.read-timeout-ms}. Every call also passes through the
+ * provider's {@link ProviderPolicy} (rate limit, bulkhead, circuit breaker); refused calls throw
+ * {@link ProviderPolicy.RejectedException} without going to the network.</p>
+ *
+ * <p>Responses may be served from and recorded to the {@link ResponseStore}, depending on the
+ * {@link ResponseStore.Retention} the caller passes.</p>
+ */
 @Component
 public class HttpJson {
 
-  private final RestTemplate restTemplate = new RestTemplate();
+  /** Defaults used when no per-provider override is configured. GDELT is by far the slowest. */
+  private static final Map<String, Integer> DEFAULT_READ_TIMEOUT_MS = Map.of(
+      "gdelt", 20_000,
+      "coingecko", 15_000,
+      "frankfurter", 8_000,
+      "alternative", 10_000,
+      "open-meteo", 10_000
+  );
+
   private final ApiCallLogRepository logRepo;
+  private final Environment env;
+  private final ProviderPolicies policies;
+  private final ResponseStore store;
+  private final ObjectMapper om = new ObjectMapper();
+  private final Map<String, RestTemplate> templates = new ConcurrentHashMap<>();
+
+  @Value("${app.http.connect-timeout-ms:5000}")
+  private int connectTimeoutMs;
 
-  public HttpJson(ApiCallLogRepository logRepo) {
+  @Value("${app.http.read-timeout-ms:15000}")
+  private int defaultReadTimeoutMs;
+
+  public HttpJson(ApiCallLogRepository logRepo, Environment env, ProviderPolicies policies, ResponseStore store) {
     this.logRepo = logRepo;
+    this.env = env;
+    this.policies = policies;
+    this.store = store;
+  }
+
+  /** Reads a JSON response body from a streaming parser. */
+  @FunctionalInterface
+  public interface JsonReader<T> {
+    T read(JsonParser parser) throws IOException;
+  }
+
+  /** Uncached variant of {@link #getJson(String, String, ResponseStore.Retention, JsonReader)}. */
+  public <T> T getJson(String provider, String url, JsonReader<T> reader) {
+    return getJson(provider, url, ResponseStore.Retention.NONE, reader);
   }
 
-  public ResponseEntity<String> get(String provider, String url) {
+  /**
+   * GET {@code url} and hand the (decompressed) body to {@code reader} as a token stream.
+   * Non-2xx responses and I/O failures are thrown as Spring's {@code RestClientException}s.
+   *
+   * <p>A stored response that {@code retention} still allows is read from disk instead, without
+   * touching the provider policy or the call log.</p>
+   */
+  public <T> T getJson(String provider, String url, ResponseStore.Retention retention, JsonReader<T> reader) {
+    try (InputStream cached = store.lookup(provider, url, retention)) {
+      if (cached != null) {
+        try (JsonParser parser = om.createParser(cached)) {
+          return reader.read(parser);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    ProviderPolicy policy = policies.forProvider(provider);
+    policy.acquire();
+    boolean failed = true;
     long start = System.currentTimeMillis();
     try {
-      HttpHeaders headers = new HttpHeaders();
-      headers.setAccept(java.util.List.of(MediaType.APPLICATION_JSON));
-      HttpEntity<Void> entity = new HttpEntity<>(headers);
-      ResponseEntity<String> resp = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-      logRepo.log(provider, url, resp.getStatusCode().value(), (int)(System.currentTimeMillis()-start), null);
-      return resp;
+      T result = template(provider).execute(
+          url,
+          HttpMethod.GET,
+          req -> {
+            req.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            req.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+          },
+          resp -> {
+            try (InputStream in = body(resp);
+                 ResponseStore.Recording rec = store.record(provider, url, retention, in);
+                 JsonParser parser = om.createParser(rec.stream())) {
+              T value = reader.read(parser);
+              rec.commit();
+              return value;
+            }
+          });
+      logRepo.log(provider, url, 200, (int)(System.currentTimeMillis()-start), null);
+      failed = false;
+      return result;
+    } catch (RestClientResponseException e) {
+      logRepo.log(provider, url, e.getStatusCode().value(), (int)(System.currentTimeMillis()-start), e.getMessage());
+      // Only throttling and server errors mean the provider is unhealthy; other 4xx are our fault.
+      failed = e.getStatusCode().value() == 429 || e.getStatusCode().is5xxServerError();
+      throw e;
     } catch (Exception e) {
       logRepo.log(provider, url, null, (int)(System.currentTimeMillis()-start), e.getMessage());
       throw e;
+    } finally {
+      policy.complete(failed);
     }
   }
+
+  private InputStream body(ClientHttpResponse resp) throws IOException {
+    InputStream in = resp.getBody();
+    String encoding = resp.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    return (encoding != null && encoding.toLowerCase().contains("gzip")) ? new GZIPInputStream(in) : in;
+  }
+
+  private RestTemplate template(String provider) {
+    return templates.computeIfAbsent(provider, p -> {
+      SimpleClientHttpRequestFactory rf = new SimpleClientHttpRequestFactory();
+      rf.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+      rf.setReadTimeout(Duration.ofMillis(readTimeoutMs(p)));
+      return new RestTemplate(rf);
+    });
+  }
+
+  private int readTimeoutMs(String provider) {
+    Integer configured = env.getProperty("app.http.providers." + provider + ".read-timeout-ms", Integer.class);
+    if (configured != null) return configured;
+    return DEFAULT_READ_TIMEOUT_MS.getOrDefault(provider, defaultReadTimeoutMs);
+  }
 }
@@ -0,0 +1,59 @@
+package com.nirmani.btcexplainer.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of {@link ProviderPolicy} instances keyed by the {@code provider} name passed to
+ * {@link HttpJson} ({@code gdelt}, {@code coingecko}, {@code frankfurter}, {@code alternative},
+ * {@code open-meteo}).
+ *
+ * <p>Every setting can be overridden per provider under {@code app.http.providers.<provider>.*}:
+ * {@code rate-per-sec}, {@code burst}, {@code rate-wait-ms}, {@code max-concurrent},
+ * {@code bulkhead-wait-ms}, {@code failure-threshold}, {@code open-ms}.</p>
+ */
+@Component
+public class ProviderPolicies {
+
+  /** GDELT throttles hard; its burst still fits one date's fan-out (count, coverage, 5 headline queries). */
+  private static final Map<String, ProviderPolicy.Settings> DEFAULTS = Map.of(
+      "gdelt", new ProviderPolicy.Settings(1.0, 7, 15_000, 4, 20_000, 5, 60_000),
+      "coingecko", new ProviderPolicy.Settings(0.5, 5, 10_000, 2, 10_000, 5, 60_000)
+  );
+
+  private static final ProviderPolicy.Settings FALLBACK =
+      new ProviderPolicy.Settings(5.0, 10, 5_000, 8, 5_000, 5, 30_000);
+
+  private final Environment env;
+  private final Map<String, ProviderPolicy> policies = new ConcurrentHashMap<>();
+
+  public ProviderPolicies(Environment env) {
+    this.env = env;
+  }
+
+  public ProviderPolicy forProvider(String provider) {
+    return policies.computeIfAbsent(provider, p -> new ProviderPolicy(p, settingsFor(p)));
+  }
+
+  public Map<String, ProviderPolicy.Snapshot> snapshot() {
+    Map<String, ProviderPolicy.Snapshot> out = new TreeMap<>();
+    policies.forEach((name, policy) -> out.put(name, policy.snapshot()));
+    return out;
+  }
+
+  private ProviderPolicy.Settings settingsFor(String provider) {
+    ProviderPolicy.Settings d = DEFAULTS.getOrDefault(provider, FALLBACK);
+    String prefix = "app.http.providers." + provider + ".";
+    return new ProviderPolicy.Settings(
+        env.getProperty(prefix + "rate-per-sec", Double.class, d.ratePerSec()),
+        env.getProperty(prefix + "burst", Integer.class, d.burst()),
+        env.getProperty(prefix + "rate-wait-ms", Long.class, d.rateWaitMs()),
+        env.getProperty(prefix + "max-concurrent", Integer.class, d.maxConcurrent()),
+        env.getProperty(prefix + "bulkhead-wait-ms", Long.class, d.bulkheadWaitMs()),
+        env.getProperty(prefix + "failure-threshold", Integer.class, d.failureThreshold()),
+        env.getProperty(prefix + "open-ms", Long.class, d.openMs()));
+  }
+}
@@ -0,0 +1,180 @@
+package com.nirmani.btcexplainer.util;
+
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound guard for a single provider: a token-bucket rate limiter, a concurrency bulkhead
+ * and a consecutive-failure circuit breaker.
+ *
+ * <p>Callers {@link #acquire()} before the request and {@link #complete(boolean)} after it.
+ * While the breaker is open, {@code acquire} fails immediately instead of letting request
+ * threads queue up behind a provider that is down. After {@code openMs} one probe call is let
+ * through (half-open); its outcome closes or re-opens the breaker.</p>
+ */
+public class ProviderPolicy {
+
+  public enum BreakerState { CLOSED, OPEN, HALF_OPEN }
+
+  public record Settings(
+      double ratePerSec,
+      int burst,
+      long rateWaitMs,
+      int maxConcurrent,
+      long bulkheadWaitMs,
+      int failureThreshold,
+      long openMs
+  ) {}
+
+  public record Snapshot(
+      String provider,
+      BreakerState breaker,
+      int consecutiveFailures,
+      Instant openUntil,
+      double availableTokens,
+      int inFlight,
+      long permitted,
+      long rejectedRate,
+      long rejectedBulkhead,
+      long rejectedBreaker,
+      Settings settings
+  ) {}
+
+  /** Thrown when a call is refused locally, without touching the network. */
+  public static class RejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public RejectedException(String provider, String reason) {
+      super(provider + " call rejected: " + reason);
+    }
+  }
+
+  private final String provider;
+  private final Settings settings;
+  private final Semaphore bulkhead;
+
+  // token bucket (guarded by this)
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+
+  // circuit breaker (guarded by this)
+  private BreakerState state = BreakerState.CLOSED;
+  private int consecutiveFailures;
+  private long openUntilMillis;
+  private boolean probeInFlight;
+
+  private final AtomicLong permitted = new AtomicLong();
+  private final AtomicLong rejectedRate = new AtomicLong();
+  private final AtomicLong rejectedBulkhead = new AtomicLong();
+  private final AtomicLong rejectedBreaker = new AtomicLong();
+
+  public ProviderPolicy(String provider, Settings settings) {
+    this.provider = provider;
+    this.settings = settings;
+    this.bulkhead = new Semaphore(Math.max(1, settings.maxConcurrent()));
+    this.tokens = Math.max(1, settings.burst());
+  }
+
+  /** Blocks (bounded) for a rate token and a bulkhead slot, or throws {@link RejectedException}. */
+  public void acquire() {
+    enterBreaker();
+    boolean slot = false;
+    try {
+      if (!takeToken()) {
+        rejectedRate.incrementAndGet();
+        throw new RejectedException(provider, "rate limit");
+      }
+      slot = bulkhead.tryAcquire(settings.bulkheadWaitMs(), TimeUnit.MILLISECONDS);
+      if (!slot) {
+        rejectedBulkhead.incrementAndGet();
+        throw new RejectedException(provider, "too many concurrent calls");
+      }
+      permitted.incrementAndGet();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedException(provider, "interrupted");
+    } finally {
+      if (!slot) abandonProbe();
+    }
+  }
+
+  /** Releases the bulkhead slot and feeds the breaker. */
+  public void complete(boolean failed) {
+    bulkhead.release();
+    synchronized (this) {
+      probeInFlight = false;
+      if (!failed) {
+        consecutiveFailures = 0;
+        state = BreakerState.CLOSED;
+        return;
+      }
+      consecutiveFailures++;
+      if (state == BreakerState.HALF_OPEN || consecutiveFailures >= settings.failureThreshold()) {
+        state = BreakerState.OPEN;
+        openUntilMillis = System.currentTimeMillis() + settings.openMs();
+      }
+    }
+  }
+
+  public synchronized Snapshot snapshot() {
+    refill();
+    return new Snapshot(
+        provider,
+        state,
+        consecutiveFailures,
+        state == BreakerState.CLOSED ? null : Instant.ofEpochMilli(openUntilMillis),
+        Math.max(0, tokens),
+        Math.max(1, settings.maxConcurrent()) - bulkhead.availablePermits(),
+        permitted.get(),
+        rejectedRate.get(),
+        rejectedBulkhead.get(),
+        rejectedBreaker.get(),
+        settings);
+  }
+
+  private synchronized void enterBreaker() {
+    if (state == BreakerState.CLOSED) return;
+    if (state == BreakerState.OPEN && System.currentTimeMillis() >= openUntilMillis) {
+      state = BreakerState.HALF_OPEN;
+    }
+    if (state == BreakerState.HALF_OPEN && !probeInFlight) {
+      probeInFlight = true;
+      return;
+    }
+    rejectedBreaker.incrementAndGet();
+    throw new RejectedException(provider, "circuit open");
+  }
+
+  private synchronized void abandonProbe() {
+    probeInFlight = false;
+  }
+
+  /**
+   * Reserves a token, sleeping until it becomes available if that takes no longer than
+   * {@code rateWaitMs}. Reservations may drive the bucket negative so waiters are served in order.
+   */
+  private boolean takeToken() throws InterruptedException {
+    long waitNanos;
+    synchronized (this) {
+      refill();
+      if (tokens >= 1) {
+        tokens -= 1;
+        return true;
+      }
+      waitNanos = (long) ((1 - tokens) / settings.ratePerSec() * 1_000_000_000L);
+      if (waitNanos > TimeUnit.MILLISECONDS.toNanos(settings.rateWaitMs())) return false;
+      tokens -= 1;
+    }
+    TimeUnit.NANOSECONDS.sleep(waitNanos);
+    return true;
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    double added = (now - lastRefillNanos) / 1_000_000_000.0 * settings.ratePerSec();
+    tokens = Math.min(Math.max(1, settings.burst()), tokens + added);
+    lastRefillNanos = now;
+  }
+}
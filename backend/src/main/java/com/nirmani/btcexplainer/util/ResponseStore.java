@@ -0,0 +1,360 @@
+package com.nirmani.btcexplainer.util;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed on-disk store of provider responses, keyed by provider and normalized URL.
+ *
+ * <p>Bodies are stored gzip-compressed and read back through a memory-mapped file. How an entry
+ * may be reused is decided by the caller's {@link Retention}: historical windows that never change
+ * are {@link Retention#IMMUTABLE}, windows that include "today" get a TTL.</p>
+ *
+ * <p>Modes ({@code app.http.cache.mode}):</p>
+ * <ul>
+ *   <li>{@code OFF} – never read or write.</li>
+ *   <li>{@code READ_WRITE} – serve fresh entries, store cacheable responses (default outside
+ *   prod).</li>
+ *   <li>{@code RECORD} – always go to the network and store every response as a fixture.</li>
+ *   <li>{@code REPLAY} – serve any recorded entry regardless of age, never go to the network.</li>
+ * </ul>
+ *
+ * <p>Each entry has a small {@code .meta} sidecar recording its retention. In {@code READ_WRITE}
+ * mode an hourly sweep deletes TTL entries once their TTL has passed (expired entries for past
+ * "today" windows would otherwise never be overwritten) and keeps immutable ones; entries without
+ * a sidecar fall back to {@code app.http.cache.max-age-hours}. While the store exceeds
+ * {@code app.http.cache.max-bytes} it then evicts TTL entries, oldest first, before touching
+ * immutable ones. Recorded fixtures ({@code RECORD}/{@code REPLAY}) are never swept. The prod
+ * profile turns the store off.</p>
+ */
+@Component
+public class ResponseStore {
+
+  public enum Mode { OFF, READ_WRITE, RECORD, REPLAY }
+
+  /** How long a stored response may be served; {@code ttl == null} means forever. */
+  public record Retention(boolean store, Duration ttl) {
+    public static final Retention NONE = new Retention(false, Duration.ZERO);
+    public static final Retention IMMUTABLE = new Retention(true, null);
+
+    public static Retention ttl(Duration ttl) {
+      return new Retention(true, ttl);
+    }
+  }
+
+  /** Thrown in {@code REPLAY} mode when no recording exists for a request. */
+  public static class ReplayMissException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ReplayMissException(String provider, String url) {
+      super("No recorded " + provider + " response for " + url);
+    }
+  }
+
+  private static final String META_SUFFIX = ".meta";
+  private static final String IMMUTABLE_META = "immutable";
+  private static final Duration UNKNOWN_TTL = Duration.ofSeconds(-1);
+
+  @Value("${app.http.cache.mode:READ_WRITE}")
+  private Mode mode;
+
+  @Value("${app.http.cache.dir:${java.io.tmpdir}/btc-explainer/http-cache}")
+  private String dir;
+
+  @Value("${app.http.cache.max-bytes:268435456}")
+  private long maxBytes;
+
+  @Value("${app.http.cache.max-age-hours:168}")
+  private long maxAgeHours;
+
+  private Path root;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong stored = new AtomicLong();
+  private final AtomicLong evicted = new AtomicLong();
+
+  @PostConstruct
+  void init() throws IOException {
+    root = Paths.get(dir);
+    if (mode != Mode.OFF) Files.createDirectories(root);
+  }
+
+  public Mode mode() { return mode; }
+  public long hits() { return hits.get(); }
+  public long misses() { return misses.get(); }
+  public long stored() { return stored.get(); }
+  public long evicted() { return evicted.get(); }
+
+  /** Returns a readable stored body, or null if the request has to go to the network. */
+  public InputStream lookup(String provider, String url, Retention retention) throws IOException {
+    if (mode == Mode.OFF || mode == Mode.RECORD) return null;
+    if (mode == Mode.READ_WRITE && !retention.store()) return null;
+
+    Path file = pathFor(provider, url);
+    if (!Files.exists(file)) {
+      misses.incrementAndGet();
+      if (mode == Mode.REPLAY) throw new ReplayMissException(provider, url);
+      return null;
+    }
+    ByteBuffer body;
+    try {
+      if (mode == Mode.READ_WRITE && retention.ttl() != null) {
+        Instant written = Files.getLastModifiedTime(file).toInstant();
+        if (written.plus(retention.ttl()).isBefore(Instant.now())) {
+          misses.incrementAndGet();
+          return null;
+        }
+      }
+      body = map(file);
+    } catch (NoSuchFileException e) {
+      // Swept between the existence check and the read.
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return new GZIPInputStream(new MappedInputStream(body));
+  }
+
+  /**
+   * Wraps a live network body so that everything read from it is also written to the store.
+   * Call {@link Recording#commit()} once the body has been consumed successfully; an uncommitted
+   * recording is discarded on close.
+   */
+  public Recording record(String provider, String url, Retention retention, InputStream body) throws IOException {
+    boolean keep = mode == Mode.RECORD || (mode == Mode.READ_WRITE && retention.store());
+    if (!keep) return new Recording(body, null, null, null, null);
+
+    Path target = pathFor(provider, url);
+    Files.createDirectories(target.getParent());
+    Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    return new Recording(body, target, tmp, new GZIPOutputStream(Files.newOutputStream(tmp)), retention);
+  }
+
+  /**
+   * Deletes expired TTL entries, then evicts TTL entries before immutable ones (oldest first)
+   * until the store is within its size bound.
+   */
+  @Scheduled(fixedDelayString = "${app.http.cache.sweep-interval-ms:3600000}", initialDelay = 60_000)
+  public void sweep() throws IOException {
+    if (mode != Mode.READ_WRITE || !Files.isDirectory(root)) return;
+
+    Instant now = Instant.now();
+    Duration maxAge = Duration.ofHours(Math.max(1, maxAgeHours));
+    Instant cutoff = now.minus(maxAge);
+    List<Entry> entries = new ArrayList<>();
+    try (Stream<Path> files = Files.walk(root)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+        String name = file.getFileName().toString();
+        try {
+          Instant written = Files.getLastModifiedTime(file).toInstant();
+          if (name.endsWith(".json.gz")) {
+            Duration ttl = storedTtl(file);
+            if (ttl != null && !written.plus(ttl.isNegative() ? maxAge : ttl).isAfter(now)) {
+              deleteEntry(file);
+            } else {
+              entries.add(new Entry(file, written, Files.size(file), ttl == null));
+            }
+          } else if (written.isBefore(cutoff) && (name.endsWith(".tmp") || orphanMeta(file))) {
+            // Temp files of interrupted recordings and sidecars of vanished entries.
+            Files.deleteIfExists(file);
+          }
+        } catch (NoSuchFileException ignore) {
+          // A recording was published or discarded meanwhile.
+        }
+      }
+    }
+
+    long total = entries.stream().mapToLong(Entry::size).sum();
+    if (total <= maxBytes) return;
+    entries.sort(Comparator.comparing(Entry::immutable).thenComparing(Entry::written));
+    for (Entry e : entries) {
+      if (total <= maxBytes) break;
+      deleteEntry(e.path());
+      total -= e.size();
+    }
+  }
+
+  private record Entry(Path path, Instant written, long size, boolean immutable) {}
+
+  private void deleteEntry(Path file) throws IOException {
+    if (Files.deleteIfExists(file)) evicted.incrementAndGet();
+    Files.deleteIfExists(metaFor(file));
+  }
+
+  /**
+   * The TTL recorded next to an entry: null for immutable entries, a negative duration when
+   * there is no usable sidecar (entries written before sidecars existed).
+   */
+  private static Duration storedTtl(Path file) throws IOException {
+    String meta;
+    try {
+      meta = Files.readString(metaFor(file), StandardCharsets.US_ASCII).trim();
+    } catch (NoSuchFileException e) {
+      return UNKNOWN_TTL;
+    }
+    if (meta.equals(IMMUTABLE_META)) return null;
+    try {
+      return Duration.ofSeconds(Long.parseLong(meta));
+    } catch (NumberFormatException e) {
+      return UNKNOWN_TTL;
+    }
+  }
+
+  private static boolean orphanMeta(Path file) {
+    String name = file.getFileName().toString();
+    return name.endsWith(META_SUFFIX)
+        && !Files.exists(file.resolveSibling(name.substring(0, name.length() - META_SUFFIX.length())));
+  }
+
+  private static Path metaFor(Path file) {
+    return file.resolveSibling(file.getFileName() + META_SUFFIX);
+  }
+
+  Path pathFor(String provider, String url) {
+    return root.resolve(provider).resolve(sha256(provider + "\n" + normalize(url)) + ".json.gz");
+  }
+
+  /** Lower-cases scheme and host and sorts query parameters so equivalent URLs share one entry. */
+  static String normalize(String url) {
+    URI u = URI.create(url);
+    String query = u.getRawQuery();
+    String sorted = "";
+    if (query != null && !query.isEmpty()) {
+      String[] params = query.split("&");
+      Arrays.sort(params);
+      sorted = "?" + String.join("&", params);
+    }
+    String scheme = u.getScheme() == null ? "" : u.getScheme().toLowerCase();
+    String host = u.getHost() == null ? "" : u.getHost().toLowerCase();
+    String port = u.getPort() < 0 ? "" : ":" + u.getPort();
+    return scheme + "://" + host + port + u.getRawPath() + sorted;
+  }
+
+  private static String sha256(String s) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static ByteBuffer map(Path file) throws IOException {
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+    }
+  }
+
+  /** Tee over a network body; see {@link #record}. */
+  public final class Recording implements AutoCloseable {
+    private final InputStream source;
+    private final Path target;
+    private final Path tmp;
+    private final OutputStream out;
+    private final InputStream stream;
+    private final Retention retention;
+    private boolean committed;
+
+    private Recording(InputStream source, Path target, Path tmp, OutputStream out, Retention retention) {
+      this.source = source;
+      this.target = target;
+      this.tmp = tmp;
+      this.out = out;
+      this.retention = retention;
+      this.stream = out == null ? source : new TeeInputStream(source, out);
+    }
+
+    public InputStream stream() { return stream; }
+
+    /** Copies whatever the reader did not consume, then publishes the entry atomically. */
+    public void commit() throws IOException {
+      if (out == null) return;
+      stream.transferTo(OutputStream.nullOutputStream());
+      out.close();
+      Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      committed = true;
+      String meta = retention.ttl() == null ? IMMUTABLE_META : Long.toString(retention.ttl().toSeconds());
+      Files.writeString(metaFor(target), meta, StandardCharsets.US_ASCII);
+      stored.incrementAndGet();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (out == null || committed) return;
+      try {
+        out.close();
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    }
+  }
+
+  private static final class TeeInputStream extends InputStream {
+    private final InputStream in;
+    private final OutputStream copy;
+
+    TeeInputStream(InputStream in, OutputStream copy) {
+      this.in = in;
+      this.copy = copy;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b >= 0) copy.write(b);
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      int n = in.read(buf, off, len);
+      if (n > 0) copy.write(buf, off, n);
+      return n;
+    }
+  }
+
+  private static final class MappedInputStream extends InputStream {
+    private final ByteBuffer buf;
+
+    MappedInputStream(ByteBuffer buf) {
+      this.buf = buf;
+    }
+
+    @Override
+    public int read() {
+      return buf.hasRemaining() ? buf.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buf.hasRemaining()) return -1;
+      int n = Math.min(len, buf.remaining());
+      buf.get(b, off, n);
+      return n;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.nirmani.btcexplainer.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keyed call coalescing: while a call for a key is in flight, further callers with the same key
+ * wait for its result (up to a bound) instead of starting their own.
+ *
+ * <p>The first caller (the leader) runs the work on its own thread. Followers share its result
+ * or exception. Counters are published as {@code single_flight.leaders},
+ * {@code single_flight.coalesced} and {@code single_flight.timeouts}.</p>
+ */
+@Component
+public class SingleFlight {
+
+  /** Thrown to a follower whose wait for the leader ran out. */
+  public static class WaitTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public WaitTimeoutException(String key) {
+      super("Timed out waiting for in-flight call " + key);
+    }
+  }
+
+  private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicLong leaders = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+
+  public SingleFlight(MeterRegistry meters) {
+    FunctionCounter.builder("single_flight.leaders", leaders, AtomicLong::get).register(meters);
+    FunctionCounter.builder("single_flight.coalesced", coalesced, AtomicLong::get).register(meters);
+    FunctionCounter.builder("single_flight.timeouts", timeouts, AtomicLong::get).register(meters);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String key, long maxWaitMs, Supplier<T> work) {
+    CompletableFuture<Object> mine = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+    if (existing != null) {
+      coalesced.incrementAndGet();
+      try {
+        return (T) existing.get(maxWaitMs, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        timeouts.incrementAndGet();
+        throw new WaitTimeoutException(key);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new WaitTimeoutException(key);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException re) throw re;
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+
+    leaders.incrementAndGet();
+    try {
+      T value = work.get();
+      mine.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, mine);
+    }
+  }
+
+  public void run(String key, long maxWaitMs, Runnable work) {
+    execute(key, maxWaitMs, () -> {
+      work.run();
+      return null;
+    });
+  }
+
+  public long leaderCount() { return leaders.get(); }
+  public long coalescedCount() { return coalesced.get(); }
+  public long timeoutCount() { return timeouts.get(); }
+}
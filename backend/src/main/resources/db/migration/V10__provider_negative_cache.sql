@@ -0,0 +1,14 @@
+-- Remembers (provider, date, query) lookups that came back empty, so on-demand
+-- enrichment does not re-hit the provider until retry_after has passed.
+
+CREATE TABLE IF NOT EXISTS provider_negative_cache (
+  provider TEXT NOT NULL,
+  lookup_date DATE NOT NULL,
+  query TEXT NOT NULL,
+  retry_after TIMESTAMPTZ NOT NULL,
+  recorded_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  PRIMARY KEY (provider, lookup_date, query)
+);
+
+CREATE INDEX IF NOT EXISTS idx_provider_negative_cache_retry_after
+  ON provider_negative_cache (retry_after);
@@ -0,0 +1,12 @@
+-- Content-addressed store of OpenAI narratives. The fingerprint is a SHA-256 of the
+-- normalized prompt inputs (incl. prompt template version and model), so identical
+-- inputs reuse the stored narrative instead of another completion.
+
+CREATE TABLE IF NOT EXISTS ai_narrative_cache (
+  fingerprint CHAR(64) PRIMARY KEY,
+  template_version INT NOT NULL,
+  narrative_text TEXT NOT NULL,
+  model TEXT,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  last_hit_at TIMESTAMPTZ
+);
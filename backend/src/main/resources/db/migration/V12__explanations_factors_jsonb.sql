@@ -0,0 +1,5 @@
+-- factors_json holds the typed Factor list (see FactorCodec); store it as JSONB so the
+-- database validates it and it can be queried without reparsing text.
+
+ALTER TABLE event_explanations
+  ALTER COLUMN factors_json TYPE JSONB USING factors_json::jsonb;
@@ -0,0 +1,16 @@
+-- Change tracking for incremental event detection: candles record when they were last
+-- written, and detection keeps a per-asset watermark of the newest change it has processed.
+
+ALTER TABLE price_candles_daily
+  ADD COLUMN IF NOT EXISTS changed_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_price_candles_daily_asset_changed_at
+  ON price_candles_daily (asset_id, changed_at);
+
+-- config: detection settings the watermark was computed with; a mismatch forces a full pass.
+CREATE TABLE IF NOT EXISTS event_detection_watermark (
+  asset_id BIGINT PRIMARY KEY REFERENCES assets(id) ON DELETE CASCADE,
+  candle_changed_at TIMESTAMPTZ NOT NULL,
+  config TEXT NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
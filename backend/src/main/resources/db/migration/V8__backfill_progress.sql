@@ -0,0 +1,10 @@
+-- Per-signal, per-date completion markers for the admin backfill pipeline.
+-- Lets an interrupted backfill resume where it stopped, and lets on-demand
+-- enrichment skip dates that were already attempted.
+
+CREATE TABLE IF NOT EXISTS backfill_progress (
+  signal TEXT NOT NULL,
+  signal_date DATE NOT NULL,
+  completed_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  PRIMARY KEY (signal, signal_date)
+);
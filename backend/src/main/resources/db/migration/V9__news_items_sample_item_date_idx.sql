@@ -0,0 +1,4 @@
+-- Supports findTop20ByItemDateOrderByPublishedAtDesc and the per-date replace of headlines.
+
+CREATE INDEX IF NOT EXISTS idx_news_items_sample_item_date
+  ON news_items_sample (item_date, published_at DESC);
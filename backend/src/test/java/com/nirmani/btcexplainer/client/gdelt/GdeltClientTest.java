@@ -0,0 +1,166 @@
+package com.nirmani.btcexplainer.client.gdelt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.nirmani.btcexplainer.util.HttpJson;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GdeltClientTest {
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  @Test
+  void parsesSeenDateFormat() throws IOException {
+    assertThat(parse("\"20240305T141516Z\"")).isEqualTo(Instant.parse("2024-03-05T14:15:16Z"));
+  }
+
+  @Test
+  void parsesEquivalentLayouts() throws IOException {
+    Instant expected = Instant.parse("2024-03-05T14:15:16Z");
+    assertThat(parse("\"20240305141516\"")).isEqualTo(expected);
+    assertThat(parse("\"2024-03-05 14:15:16\"")).isEqualTo(expected);
+    assertThat(parse("\"2024-03-05T14:15:16Z\"")).isEqualTo(expected);
+  }
+
+  @Test
+  void matchesJavaTimeAcrossCalendarEdges() throws IOException {
+    for (String iso : new String[] {
+        "1970-01-01T00:00:00Z", "1999-12-31T23:59:59Z", "2000-02-29T12:00:00Z",
+        "2024-02-29T00:00:00Z", "2024-03-01T00:00:00Z", "2100-03-01T00:00:00Z"}) {
+      assertThat(parse("\"" + iso + "\"")).as(iso).isEqualTo(Instant.parse(iso));
+    }
+  }
+
+  @Test
+  void rejectsMalformedValues() throws IOException {
+    assertThat(parse("\"2024030514\"")).isNull();           // too few digits
+    assertThat(parse("\"20241305T141516Z\"")).isNull();     // month 13
+    assertThat(parse("\"20240300T141516Z\"")).isNull();     // day 0
+    assertThat(parse("\"20240305T241516Z\"")).isNull();     // hour 24
+    assertThat(parse("\"20240305T146016Z\"")).isNull();     // minute 60
+    assertThat(parse("\"20240231T000000Z\"")).isNull();     // Feb 31
+    assertThat(parse("\"20240230T000000Z\"")).isNull();     // Feb 30 in a leap year
+    assertThat(parse("\"20230229T000000Z\"")).isNull();     // Feb 29 in a common year
+    assertThat(parse("\"19000229T000000Z\"")).isNull();     // century, not a leap year
+    assertThat(parse("\"20240431T000000Z\"")).isNull();     // 30-day month
+    assertThat(parse("\"20241131T000000Z\"")).isNull();
+    assertThat(parse("\"2024/03/05 14:15:16\"")).isNull();  // unknown separator
+    assertThat(parse("\"\"")).isNull();
+  }
+
+  @Test
+  void ignoresNonStringTokens() throws IOException {
+    assertThat(parse("20240305141516")).isNull();
+    assertThat(parse("null")).isNull();
+  }
+
+  @Test
+  void acceptsLastDayOfEachMonth() throws IOException {
+    assertThat(parse("\"20240229T000000Z\"")).isEqualTo(Instant.parse("2024-02-29T00:00:00Z"));
+    assertThat(parse("\"20000229T000000Z\"")).isEqualTo(Instant.parse("2000-02-29T00:00:00Z"));
+    assertThat(parse("\"20240430T000000Z\"")).isEqualTo(Instant.parse("2024-04-30T00:00:00Z"));
+    assertThat(parse("\"20241231T235959Z\"")).isEqualTo(Instant.parse("2024-12-31T23:59:59Z"));
+  }
+
+  @Test
+  void timelineSumsNestedBucketsOfTheFirstSeries() throws IOException {
+    String json = """
+        {"query_details": {"title": "x", "nested": [1, 2]},
+         "timeline": [
+           {"series": "Volume Intensity",
+            "data": [
+              {"date": "20240305T000000Z", "value": 0.5, "extra": {"a": 1}},
+              {"date": "20240305T001500Z", "value": 1.5},
+              {"date": "20240305T003000Z", "value": "n/a"}
+            ]},
+           {"series": "ignored", "data": [{"value": 100}]}
+         ]}
+        """;
+    GdeltClient.BucketStats stats = read(json, GdeltClient::readTimeline);
+
+    assertThat(stats.sum()).isEqualTo(2.0);
+    assertThat(stats.buckets()).isEqualTo(2);
+    assertThat(stats.sum() / stats.buckets()).isEqualTo(1.0); // mean coverage
+  }
+
+  @Test
+  void timelineAcceptsFlatValues() throws IOException {
+    GdeltClient.BucketStats stats = read("{\"timeline\": [{\"value\": 3, \"series\": \"s\"}]}", GdeltClient::readTimeline);
+    assertThat(stats.sum()).isEqualTo(3.0);
+    assertThat(stats.buckets()).isEqualTo(1);
+  }
+
+  @Test
+  void timelineWithoutSeriesIsEmpty() throws IOException {
+    assertThat(read("{\"timeline\": []}", GdeltClient::readTimeline).buckets()).isZero();
+    assertThat(read("{\"other\": 1}", GdeltClient::readTimeline).buckets()).isZero();
+    assertThat(read("[]", GdeltClient::readTimeline).buckets()).isZero();
+  }
+
+  @Test
+  void articlesReadKnownFieldsAndSkipTheRest() throws IOException {
+    String json = """
+        {"status": {"nested": {"deep": [1, {"x": 2}]}},
+         "articles": [
+           {"url": "https://a.example/1", "url_mobile": "", "title": "Bitcoin jumps",
+            "seendate": "20240305T141516Z", "socialimage": {"w": 1}, "domain": "a.example",
+            "language": "English", "sourcecountry": "United States", "tags": ["x", "y"]},
+           {"title": "No date", "seendate": "20240231T000000Z"}
+         ]}
+        """;
+    List<GdeltClient.NewsItem> items = read(json, p -> GdeltClient.readArticles(p, 10));
+
+    assertThat(items).containsExactly(
+        new GdeltClient.NewsItem("Bitcoin jumps", "United States", "https://a.example/1",
+            Instant.parse("2024-03-05T14:15:16Z")),
+        new GdeltClient.NewsItem("No date", "", "", null));
+  }
+
+  @Test
+  void articlesStopAtMaxRecords() throws IOException {
+    String json = "{\"articles\": [{\"title\": \"a\"}, {\"title\": \"b\"}, {\"title\": \"c\"}]}";
+    List<GdeltClient.NewsItem> items = read(json, p -> GdeltClient.readArticles(p, 2));
+
+    assertThat(items).extracting(GdeltClient.NewsItem::title).containsExactly("a", "b");
+  }
+
+  @Test
+  void articlesMissingOrNotAnArrayAreEmpty() throws IOException {
+    List<GdeltClient.NewsItem> missing = read("{}", p -> GdeltClient.readArticles(p, 10));
+    List<GdeltClient.NewsItem> notArray = read("{\"articles\": {\"title\": \"a\"}}", p -> GdeltClient.readArticles(p, 10));
+
+    assertThat(missing).isEmpty();
+    assertThat(notArray).isEmpty();
+  }
+
+  @Test
+  void seekStopsAtTheNamedArrayAfterSkippingOtherFields() throws IOException {
+    try (JsonParser p = JSON.createParser("{\"a\": {\"articles\": [0]}, \"b\": [1], \"articles\": [2]}")) {
+      assertThat(GdeltClient.seekArrayField(p, "articles")).isTrue();
+      assertThat(p.nextToken()).isEqualTo(JsonToken.VALUE_NUMBER_INT);
+      assertThat(p.getIntValue()).isEqualTo(2);
+    }
+    try (JsonParser p = JSON.createParser("{\"articles\": \"none\"}")) {
+      assertThat(GdeltClient.seekArrayField(p, "articles")).isFalse();
+    }
+  }
+
+  private static <T> T read(String json, HttpJson.JsonReader<T> reader) throws IOException {
+    try (JsonParser p = JSON.createParser(json)) {
+      return reader.read(p);
+    }
+  }
+
+  private static Instant parse(String json) throws IOException {
+    try (JsonParser p = JSON.createParser(json)) {
+      p.nextToken();
+      return GdeltClient.parseGdeltInstant(p);
+    }
+  }
+}
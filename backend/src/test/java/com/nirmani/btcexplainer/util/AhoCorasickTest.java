@@ -0,0 +1,103 @@
+package com.nirmani.btcexplainer.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AhoCorasickTest {
+
+  @Test
+  void reportsEveryGroupWithAnOccurrence() {
+    AhoCorasick m = AhoCorasick.builder()
+        .add(0, "he")
+        .add(1, "she")
+        .add(2, "his")
+        .add(3, "hers")
+        .build();
+
+    // "she" ends inside "hers": both, plus "he", must be found from one pass.
+    assertThat(m.match("ushers")).isEqualTo(0b1011L);
+    assertThat(m.match("this")).isEqualTo(0b0100L);
+    assertThat(m.match("nothing")).isZero();
+  }
+
+  @Test
+  void foldsCase() {
+    AhoCorasick m = AhoCorasick.builder().add(0, "Bitcoin").add(1, "etf").build();
+
+    assertThat(m.match("BITCOIN ETF inflows")).isEqualTo(0b11L);
+    assertThat(m.containsAny("spot bItCoIn")).isTrue();
+  }
+
+  @Test
+  void handlesNullAndEmptyInput() {
+    AhoCorasick m = AhoCorasick.builder().add(0, "x").add(1, "").add(2, null).build();
+
+    assertThat(m.match(null)).isZero();
+    assertThat(m.containsAny(null)).isFalse();
+    assertThat(m.match("")).isZero();
+    assertThat(AhoCorasick.builder().build().match("anything")).isZero();
+  }
+
+  @Test
+  void rejectsGroupsOutsideTheMask() {
+    assertThatThrownBy(() -> AhoCorasick.builder().add(64, "x")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AhoCorasick.builder().add(-1, "x")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void agreesWithNaiveContains() {
+    // A small alphabet makes overlaps, shared prefixes and failure-link paths common.
+    String alphabet = "abcAB. ";
+    Random random = new Random(42);
+
+    for (int round = 0; round < 500; round++) {
+      int groups = 1 + random.nextInt(6);
+      List<List<String>> patterns = new ArrayList<>();
+      AhoCorasick.Builder builder = AhoCorasick.builder();
+      for (int g = 0; g < groups; g++) {
+        List<String> ps = new ArrayList<>();
+        for (int k = 1 + random.nextInt(3); k > 0; k--) ps.add(randomString(random, alphabet, 1, 4));
+        patterns.add(ps);
+        builder.addAll(g, ps);
+      }
+      AhoCorasick m = builder.build();
+
+      for (int t = 0; t < 20; t++) {
+        String text = randomString(random, alphabet, 0, 30);
+        long expected = naive(patterns, text);
+        assertThat(m.match(text)).as("patterns %s, text '%s'", patterns, text).isEqualTo(expected);
+        assertThat(m.containsAny(text)).isEqualTo(expected != 0L);
+      }
+    }
+  }
+
+  private static long naive(List<List<String>> patterns, String text) {
+    String folded = fold(text);
+    long mask = 0L;
+    for (int g = 0; g < patterns.size(); g++) {
+      for (String p : patterns.get(g)) {
+        if (folded.contains(fold(p))) mask |= 1L << g;
+      }
+    }
+    return mask;
+  }
+
+  /** Per-char lower case, the same folding the matcher applies. */
+  private static String fold(String s) {
+    StringBuilder b = new StringBuilder(s.length());
+    for (int i = 0; i < s.length(); i++) b.append(Character.toLowerCase(s.charAt(i)));
+    return b.toString();
+  }
+
+  private static String randomString(Random random, String alphabet, int minLen, int maxLen) {
+    int len = minLen + random.nextInt(maxLen - minLen + 1);
+    StringBuilder b = new StringBuilder(len);
+    for (int i = 0; i < len; i++) b.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    return b.toString();
+  }
+}
@@ -0,0 +1,98 @@
+package com.nirmani.btcexplainer.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nirmani.btcexplainer.util.ProviderPolicy.BreakerState;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class ProviderPolicyTest {
+
+  private static final long OPEN_MS = 200;
+
+  private final ProviderPolicy policy = new ProviderPolicy("test",
+      new ProviderPolicy.Settings(1_000, 100, 0, 10, 0, 3, OPEN_MS));
+
+  @Test
+  void opensAfterConsecutiveFailureThreshold() {
+    fail(2);
+    assertThat(policy.snapshot().breaker()).isEqualTo(BreakerState.CLOSED);
+
+    Instant before = Instant.now();
+    fail(1);
+    ProviderPolicy.Snapshot s = policy.snapshot();
+    assertThat(s.breaker()).isEqualTo(BreakerState.OPEN);
+    assertThat(s.openUntil()).isAfterOrEqualTo(before.plusMillis(OPEN_MS).minusMillis(1));
+
+    assertThatThrownBy(policy::acquire)
+        .isInstanceOf(ProviderPolicy.RejectedException.class)
+        .hasMessageContaining("circuit open");
+    assertThat(policy.snapshot().rejectedBreaker()).isEqualTo(1);
+  }
+
+  @Test
+  void successResetsTheFailureCount() {
+    fail(2);
+    policy.acquire();
+    policy.complete(false);
+    fail(2);
+
+    assertThat(policy.snapshot().breaker()).isEqualTo(BreakerState.CLOSED);
+    assertThat(policy.snapshot().consecutiveFailures()).isEqualTo(2);
+  }
+
+  @Test
+  void halfOpenAdmitsOneProbeAndClosesOnSuccess() throws InterruptedException {
+    fail(3);
+    Thread.sleep(OPEN_MS + 50);
+
+    policy.acquire(); // the probe
+    assertThat(policy.snapshot().breaker()).isEqualTo(BreakerState.HALF_OPEN);
+    assertThatThrownBy(policy::acquire).isInstanceOf(ProviderPolicy.RejectedException.class);
+
+    policy.complete(false);
+    assertThat(policy.snapshot().breaker()).isEqualTo(BreakerState.CLOSED);
+    assertThat(policy.snapshot().consecutiveFailures()).isZero();
+    policy.acquire();
+    policy.complete(false);
+  }
+
+  @Test
+  void failedProbeReopens() throws InterruptedException {
+    fail(3);
+    Thread.sleep(OPEN_MS + 50);
+
+    policy.acquire();
+    Instant before = Instant.now();
+    policy.complete(true);
+
+    ProviderPolicy.Snapshot s = policy.snapshot();
+    assertThat(s.breaker()).isEqualTo(BreakerState.OPEN);
+    assertThat(s.openUntil()).isAfterOrEqualTo(before.plusMillis(OPEN_MS).minusMillis(1));
+    assertThatThrownBy(policy::acquire).isInstanceOf(ProviderPolicy.RejectedException.class);
+  }
+
+  @Test
+  void bulkheadRejectsBeyondMaxConcurrent() {
+    ProviderPolicy single = new ProviderPolicy("test",
+        new ProviderPolicy.Settings(1_000, 100, 0, 1, 0, 3, OPEN_MS));
+    single.acquire();
+
+    assertThatThrownBy(single::acquire)
+        .isInstanceOf(ProviderPolicy.RejectedException.class)
+        .hasMessageContaining("too many concurrent calls");
+
+    // A local rejection is not a provider failure.
+    assertThat(single.snapshot().breaker()).isEqualTo(BreakerState.CLOSED);
+    single.complete(false);
+    single.acquire();
+  }
+
+  private void fail(int times) {
+    for (int i = 0; i < times; i++) {
+      policy.acquire();
+      policy.complete(true);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.nirmani.btcexplainer.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nirmani.btcexplainer.util.ResponseStore.Retention;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ResponseStoreTest {
+
+  @TempDir
+  Path dir;
+
+  private final ResponseStore store = new ResponseStore();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    ReflectionTestUtils.setField(store, "mode", ResponseStore.Mode.READ_WRITE);
+    ReflectionTestUtils.setField(store, "dir", dir.toString());
+    ReflectionTestUtils.setField(store, "maxBytes", Long.MAX_VALUE);
+    ReflectionTestUtils.setField(store, "maxAgeHours", 168L);
+    store.init();
+  }
+
+  @Test
+  void sweepDeletesExpiredTtlEntriesAndKeepsImmutableOnes() throws IOException {
+    Path old = put("https://x.example/old", Retention.IMMUTABLE, Duration.ofDays(30));
+    Path expired = put("https://x.example/expired", Retention.ttl(Duration.ofMinutes(15)), Duration.ofHours(1));
+    Path fresh = put("https://x.example/fresh", Retention.ttl(Duration.ofHours(2)), Duration.ofHours(1));
+
+    store.sweep();
+
+    assertThat(old).exists();
+    assertThat(fresh).exists();
+    assertThat(expired).doesNotExist();
+    assertThat(Path.of(expired + ".meta")).doesNotExist();
+    assertThat(store.evicted()).isEqualTo(1);
+  }
+
+  @Test
+  void entriesWithoutMetadataFallBackToMaxAge() throws IOException {
+    Path legacy = put("https://x.example/legacy", Retention.IMMUTABLE, Duration.ofDays(8));
+    Path recent = put("https://x.example/recent", Retention.IMMUTABLE, Duration.ofDays(1));
+    Files.delete(Path.of(legacy + ".meta"));
+    Files.delete(Path.of(recent + ".meta"));
+
+    store.sweep();
+
+    assertThat(legacy).doesNotExist();
+    assertThat(recent).exists();
+  }
+
+  @Test
+  void sizeEvictionTakesTtlEntriesBeforeImmutableOnes() throws IOException {
+    Path oldest = put("https://x.example/a", Retention.IMMUTABLE, Duration.ofDays(20));
+    Path ttl = put("https://x.example/b", Retention.ttl(Duration.ofDays(1)), Duration.ofHours(1));
+    Path older = put("https://x.example/c", Retention.IMMUTABLE, Duration.ofDays(10));
+    ReflectionTestUtils.setField(store, "maxBytes", Files.size(oldest) + Files.size(older));
+
+    store.sweep();
+
+    assertThat(ttl).doesNotExist();
+    assertThat(oldest).exists();
+    assertThat(older).exists();
+
+    ReflectionTestUtils.setField(store, "maxBytes", Files.size(older));
+    store.sweep();
+
+    assertThat(oldest).doesNotExist();
+    assertThat(older).exists();
+  }
+
+  private Path put(String url, Retention retention, Duration age) throws IOException {
+    byte[] body = ("{\"url\":\"" + url + "\"}").getBytes(StandardCharsets.UTF_8);
+    try (ResponseStore.Recording r = store.record("test", url, retention, new ByteArrayInputStream(body))) {
+      r.commit();
+    }
+    Path file = store.pathFor("test", url);
+    Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+    return file;
+  }
+}
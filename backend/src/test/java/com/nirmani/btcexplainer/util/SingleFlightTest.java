@@ -0,0 +1,124 @@
+package com.nirmani.btcexplainer.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private final SingleFlight flight = new SingleFlight(new SimpleMeterRegistry());
+  private final ExecutorService threads = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void shutdown() {
+    threads.shutdownNow();
+  }
+
+  @Test
+  void followerSharesLeaderResult() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+
+    CompletableFuture<String> leader = async(() -> flight.execute("k", 5_000, () -> {
+      calls.incrementAndGet();
+      await(release);
+      return "value";
+    }));
+    awaitLeader();
+    CompletableFuture<String> follower = async(() -> flight.execute("k", 5_000, () -> {
+      calls.incrementAndGet();
+      return "other";
+    }));
+    awaitCoalesced(1);
+    release.countDown();
+
+    assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void leaderFailureIsRethrownToFollowersAndFreesTheKey() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    IllegalStateException boom = new IllegalStateException("boom");
+
+    CompletableFuture<String> leader = async(() -> flight.execute("k", 5_000, () -> {
+      await(release);
+      throw boom;
+    }));
+    awaitLeader();
+    CompletableFuture<String> follower = async(() -> flight.execute("k", 5_000, () -> "unused"));
+    awaitCoalesced(1);
+    release.countDown();
+
+    assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(boom);
+    assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCause(boom);
+
+    // The failed call is not cached: the next caller leads a fresh one.
+    assertThat(flight.execute("k", 5_000, () -> "retry")).isEqualTo("retry");
+    assertThat(flight.leaderCount()).isEqualTo(2);
+  }
+
+  @Test
+  void followerGivesUpAfterMaxWait() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> leader = async(() -> flight.execute("k", 5_000, () -> {
+      await(release);
+      return "late";
+    }));
+    awaitLeader();
+
+    assertThatThrownBy(() -> flight.execute("k", 50, () -> "unused"))
+        .isInstanceOf(SingleFlight.WaitTimeoutException.class);
+    assertThat(flight.timeoutCount()).isEqualTo(1);
+
+    // The leader is unaffected by its follower's timeout.
+    release.countDown();
+    assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("late");
+  }
+
+  @Test
+  void distinctKeysDoNotCoalesce() {
+    assertThat(flight.execute("a", 5_000, () -> 1)).isEqualTo(1);
+    assertThat(flight.execute("b", 5_000, () -> 2)).isEqualTo(2);
+    assertThat(flight.leaderCount()).isEqualTo(2);
+    assertThat(flight.coalescedCount()).isZero();
+  }
+
+  private <T> CompletableFuture<T> async(Supplier<T> call) {
+    return CompletableFuture.supplyAsync(call, threads);
+  }
+
+  private void awaitLeader() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (flight.leaderCount() < 1 && System.nanoTime() < deadline) Thread.sleep(5);
+    assertThat(flight.leaderCount()).isEqualTo(1);
+  }
+
+  private void awaitCoalesced(long n) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (flight.coalescedCount() < n && System.nanoTime() < deadline) Thread.sleep(5);
+    assertThat(flight.coalescedCount()).isEqualTo(n);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
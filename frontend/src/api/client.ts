@@ -8,3 +8,65 @@ export async function apiGet<T>(path: string): Promise<T> {
   }
   return res.json() as Promise<T>;
 }
+
+type JobStatus = {
+  jobId: string;
+  state: "QUEUED" | "RUNNING" | "DONE" | "FAILED";
+  pollUrl: string;
+  resultUrl: string;
+  error?: string;
+};
+
+const sleep = (ms: number) => new Promise((r) => setTimeout(r, ms));
+
+/**
+ * GET a resource that may be generated in the background: a 202 response carries a job
+ * whose pollUrl is polled until it finishes, then the resource is fetched again.
+ */
+export async function apiGetWhenReady<T>(path: string, pollMs = 1500, timeoutMs = 120_000): Promise<T> {
+  const res = await fetch(`${API_BASE}${path}`);
+  if (res.status !== 202) {
+    if (!res.ok) {
+      const text = await res.text();
+      throw new Error(`HTTP ${res.status}: ${text}`);
+    }
+    return res.json() as Promise<T>;
+  }
+
+  let job = (await res.json()) as JobStatus;
+  const deadline = Date.now() + timeoutMs;
+  while (job.state === "QUEUED" || job.state === "RUNNING") {
+    if (Date.now() > deadline) throw new Error("Timed out waiting for the explanation");
+    await sleep(pollMs);
+    job = await apiGet<JobStatus>(job.pollUrl);
+  }
+  if (job.state === "FAILED") throw new Error(job.error ?? "Explanation failed");
+  return apiGet<T>(job.resultUrl);
+}
+
+/**
+ * Open an SSE stream (see /api/explain/{id}/stream): `token` events carry text deltas passed to
+ * onToken, and the promise resolves with the `done` payload. Rejects on `error` or a dropped stream.
+ */
+export function apiStream<T>(path: string, onToken: (text: string) => void): Promise<T> {
+  return new Promise<T>((resolve, reject) => {
+    const es = new EventSource(`${API_BASE}${path}`);
+    let finished = false;
+
+    es.addEventListener("token", (ev) => {
+      onToken(JSON.parse((ev as MessageEvent).data).text ?? "");
+    });
+    es.addEventListener("done", (ev) => {
+      finished = true;
+      es.close();
+      resolve(JSON.parse((ev as MessageEvent).data) as T);
+    });
+    es.addEventListener("error", (ev) => {
+      if (finished) return;
+      finished = true;
+      es.close();
+      const data = (ev as MessageEvent).data;
+      reject(new Error(data ? JSON.parse(data).error ?? "Stream failed" : "Stream failed"));
+    });
+  });
+}
@@ -1,6 +1,6 @@
 import React, { useEffect, useMemo, useState } from "react";
 import PriceChart, { ChartPoint, EventPoint } from "../components/PriceChart";
-import { apiGet } from "../api/client";
+import { apiGet, apiGetWhenReady, apiStream } from "../api/client";
 
 type Factor = {
   name: string;
@@ -21,6 +21,11 @@ type Explanation = {
   factorsJson: string;
 };
 
+type ExplanationBatch = {
+  explanations: Explanation[];
+  missing: number[];
+};
+
 function buildFallbackNarrative(explain: Explanation, factors: Factor[]): string {
   const dirWord = explain.direction === "UP" ? "rose" : "fell";
   const pct = Math.abs(Number(explain.pctChange)).toFixed(2);
@@ -81,6 +86,8 @@ export default function Dashboard() {
   const [selected, setSelected] = useState<number | null>(null);
   const [explain, setExplain] = useState<Explanation | null>(null);
   const [loading, setLoading] = useState(false);
+  const [streamed, setStreamed] = useState("");
+  const [prefetched, setPrefetched] = useState<Map<number, Explanation>>(new Map());
   const [err, setErr] = useState<string | null>(null);
 
   // 🔹 ADDED: page-level loading for Render cold start
@@ -100,6 +107,13 @@ export default function Dashboard() {
         ]);
         setChart(c);
         setEvents(e);
+
+        // Stored explanations for the listed events in one request; best-effort.
+        if (e.length > 0) {
+          apiGet<ExplanationBatch>(`/api/explain/batch?ids=${e.slice(0, 200).map((x) => x.id).join(",")}`)
+            .then((b) => setPrefetched(new Map(b.explanations.map((x): [number, Explanation] => [x.eventId, x]))))
+            .catch(() => {});
+        }
       } catch (ex: any) {
         setErr(ex.message ?? "Failed to load");
       } finally {
@@ -112,8 +126,21 @@ export default function Dashboard() {
   async function selectEvent(id: number) {
     setSelected(id);
     setLoading(true);
+    setStreamed("");
+    const known = prefetched.get(id);
+    if (known?.aiExplanation) {
+      setExplain(known);
+      setLoading(false);
+      return;
+    }
     try {
-      const ex = await apiGet<Explanation>(`/api/explain/${id}`);
+      let ex: Explanation;
+      try {
+        // Stream the narrative as it is written; fall back to the queued job if streaming fails.
+        ex = await apiStream<Explanation>(`/api/explain/${id}/stream`, (t) => setStreamed((s) => s + t));
+      } catch {
+        ex = await apiGetWhenReady<Explanation>(`/api/explain/${id}`);
+      }
       setExplain(ex);
     } catch (e: any) {
       setExplain(null);
@@ -253,7 +280,11 @@ export default function Dashboard() {
 
           <div className="cardBody">
             <div className="drawer">
-              {loading && <div className="loading">Generating explanation…</div>}
+              {loading && (
+                <div className="loading">
+                  {streamed ? <div className="aiBody">{streamed}</div> : "Generating explanation…"}
+                </div>
+              )}
               {!loading && !explain && (
                 <div className="muted">Choose a move from the left list (or click a dot on the chart).</div>
               )}